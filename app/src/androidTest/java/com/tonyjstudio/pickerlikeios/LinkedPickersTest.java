@@ -0,0 +1,169 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test of three linked pickers, year, month and day: loads run when the test drains them,
+ * results are handed back at once since the test runs on the UI thread.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LinkedPickersTest {
+
+    @Rule
+    public ActivityTestRule<Main2Activity> activityRule = new ActivityTestRule<>(Main2Activity.class);
+
+    private final Queue<Runnable> loads = new ArrayDeque<>();
+    private final Executor loadExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            loads.add(command);
+        }
+    };
+    private final Executor directExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+    private final CalendarSource source = new CalendarSource();
+    private final List<int[]> paths = new ArrayList<>();
+
+    private Picker years;
+    private Picker months;
+    private Picker days;
+    private LinkedPickers linked;
+
+    @Test
+    public void select_fillsTheChainAndKeepsTheDay() {
+        runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                link();
+                linked.select(0, 0);
+                drainLoads();
+                assertEquals(12, months.getAdapter().getCount());
+                assertEquals(31, days.getAdapter().getCount());
+
+                linked.select(1, 3);
+                drainLoads();
+                assertEquals(30, days.getAdapter().getCount());
+                linked.select(2, 14);
+                assertArrayEquals(new int[]{0, 3, 14}, paths.get(paths.size() - 1));
+
+                // february of a leap year: the 15th is still there
+                linked.select(1, 1);
+                drainLoads();
+                assertEquals(29, days.getAdapter().getCount());
+                assertEquals(14, days.getCenterItem());
+            }
+        });
+    }
+
+    @Test
+    public void parentSeenBefore_isShownWithoutLoading() {
+        runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                link();
+                linked.select(0, 0);
+                drainLoads();
+                linked.select(0, 1);
+                drainLoads();
+                int loadCount = source.loadCount;
+
+                linked.select(0, 0);
+                // from the cache within the call, no load queued
+                assertTrue(loads.isEmpty());
+                assertEquals(loadCount, source.loadCount);
+                assertArrayEquals(new int[]{0, 6, 16}, linked.getSelectedPath());
+            }
+        });
+    }
+
+    @Test
+    public void parentMovingOn_skipsTheStaleLoads() {
+        runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                link();
+                linked.select(0, 0);
+                linked.select(0, 1);
+                linked.select(0, 2);
+                drainLoads();
+                // only the load of the last year ran, the days followed it
+                assertEquals(2, source.loadCount);
+                // looping pickers start on their middle item
+                assertArrayEquals(new int[]{2, 6, 16}, linked.getSelectedPath());
+                assertEquals(31, days.getAdapter().getCount());
+            }
+        });
+    }
+
+    private void link() {
+        years = new Picker(activityRule.getActivity());
+        months = new Picker(activityRule.getActivity());
+        days = new Picker(activityRule.getActivity());
+        years.setRange(2020, 2029, 1);
+        linked = new LinkedPickers(source, 8, loadExecutor, directExecutor, new Picker[]{years, months, days});
+        linked.setOnPathSelectedListener(new LinkedPickers.OnPathSelectedListener() {
+            @Override
+            public void onPathSelected(int[] path) {
+                paths.add(path);
+            }
+        });
+    }
+
+    private void drainLoads() {
+        Runnable load;
+        while ((load = loads.poll()) != null) {
+            load.run();
+        }
+    }
+
+    private static void runOnUiThread(Runnable test) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(test);
+    }
+
+    /*
+     * Months of a year from 2020, days of a month, counting the loads that ran
+     */
+    private static final class CalendarSource implements LinkedPickers.Source {
+        private static final int[] DAYS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+        int loadCount;
+
+        @Override
+        public List<String> loadItems(int level, int[] path) {
+            loadCount++;
+            List<String> items = new ArrayList<>();
+            if (level == 1) {
+                for (int month = 1; month <= 12; month++) {
+                    items.add("Month " + month);
+                }
+                return items;
+            }
+            int year = 2020 + path[0];
+            int count = DAYS[path[1]];
+            if (path[1] == 1 && year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) {
+                count++;
+            }
+            for (int day = 1; day <= count; day++) {
+                items.add(String.valueOf(day));
+            }
+            return items;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test creating and destroying pickers, none may outlive its window or leave a thread behind.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PickerLifecycleTest {
+
+    private static final int CYCLES = 1000;
+    private static final int CYCLES_PER_SYNC = 20;
+    // slack for the runtime's own allocations between the two heap readings
+    private static final long HEAP_SLACK_BYTES = 2 * 1024 * 1024;
+
+    @Rule
+    public ActivityTestRule<Main2Activity> activityRule = new ActivityTestRule<>(Main2Activity.class);
+
+    private final List<String> items = labels(5000);
+
+    @Test
+    public void createDestroyCycles_leakNoViewsOrThreads() {
+        // warm up the shared scheduler and background thread
+        runCycles(50, new ArrayList<WeakReference<Picker>>());
+        int threadsBefore = countThreads();
+        long heapBefore = usedHeapAfterGc();
+
+        List<WeakReference<Picker>> pickers = new ArrayList<>(CYCLES);
+        runCycles(CYCLES, pickers);
+        // flings end and the pickers' background work finishes
+        SystemClock.sleep(1000);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        long heapAfter = usedHeapAfterGc();
+
+        int retained = 0;
+        for (WeakReference<Picker> picker : pickers) {
+            if (picker.get() != null) {
+                retained++;
+            }
+        }
+        assertEquals("pickers retained after detach", 0, retained);
+        assertTrue("threads grew from " + threadsBefore, countThreads() <= threadsBefore);
+        assertTrue("heap grew by " + (heapAfter - heapBefore), heapAfter - heapBefore < HEAP_SLACK_BYTES);
+    }
+
+    @Test
+    public void reattach_resumesScrolling() {
+        final ViewGroup root = contentRoot();
+        final Picker[] picker = new Picker[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                picker[0] = attachPicker(root);
+                picker[0].setCurrentPosition(42);
+                picker[0].setLabelCacheEnabled(true);
+                root.removeView(picker[0]);
+                root.addView(picker[0], new ViewGroup.LayoutParams(600, 400));
+                layOut(picker[0]);
+                // the default budget follows the row size, the cache is not left off
+                assertTrue(picker[0].isLabelCacheUsable());
+                picker[0].scrollBy(-4000f);
+            }
+        });
+        SystemClock.sleep(1000);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(picker[0].getSelectedItem() > 42);
+                root.removeView(picker[0]);
+            }
+        });
+    }
+
+    @Test
+    public void detach_reportsNoSelectionAndDropsTheWidths() {
+        final ViewGroup root = contentRoot();
+        final Picker[] picker = new Picker[1];
+        final int[] selections = new int[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                picker[0] = attachPicker(root);
+                // a look of its own, the activity's picker holds the default style
+                picker[0].setCenterTextColor(0xff123456);
+                picker[0].setListener(new Picker.OnItemSelectedListener() {
+                    @Override
+                    public void onItemSelected(int index) {
+                        selections[0]++;
+                    }
+                });
+            }
+        });
+        // the labels are measured into the style before the view leaves
+        SystemClock.sleep(1000);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        final PickerStyle style = picker[0].getStyle();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(style.outerWidths.size() > 0);
+                selections[0] = 0;
+                picker[0].scrollBy(-4000f);
+                root.removeView(picker[0]);
+            }
+        });
+        SystemClock.sleep(1000);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+        assertEquals("selections reported after detach", 0, selections[0]);
+        assertEquals(0, style.outerWidths.size());
+        assertEquals(0, style.centerWidths.size());
+    }
+
+    /*
+     * attach a picker with a running fling and detach it again, every picker is recorded weakly
+     */
+    private void runCycles(int cycles, final List<WeakReference<Picker>> pickers) {
+        final ViewGroup root = contentRoot();
+        for (int done = 0; done < cycles; done += CYCLES_PER_SYNC) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < CYCLES_PER_SYNC; i++) {
+                        Picker picker = attachPicker(root);
+                        picker.setLabelCacheEnabled(true);
+                        picker.setOnItemScrollListener(new Picker.OnItemScrollListener() {
+                            @Override
+                            public void onItemScrolled(int index) {
+                            }
+                        }, 100);
+                        picker.scrollBy(-4000f);
+                        root.removeView(picker);
+                        pickers.add(new WeakReference<>(picker));
+                    }
+                }
+            });
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+
+    private Picker attachPicker(ViewGroup root) {
+        Picker picker = new Picker(activityRule.getActivity());
+        picker.setItems(items);
+        root.addView(picker, new ViewGroup.LayoutParams(600, 400));
+        layOut(picker);
+        return picker;
+    }
+
+    private static void layOut(Picker picker) {
+        picker.measure(View.MeasureSpec.makeMeasureSpec(600, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY));
+        picker.layout(0, 0, 600, 400);
+    }
+
+    private ViewGroup contentRoot() {
+        return (ViewGroup) activityRule.getActivity().findViewById(android.R.id.content);
+    }
+
+    /*
+     * live threads, the shared picker thread is left out as it comes and goes with its idle timeout
+     */
+    private static int countThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!"picker-background".equals(thread.getName())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            System.runFinalization();
+            SystemClock.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<String> labels(int count) {
+        List<String> labels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            labels.add("Item " + i);
+        }
+        return labels;
+    }
+}
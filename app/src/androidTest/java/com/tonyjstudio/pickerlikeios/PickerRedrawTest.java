@@ -0,0 +1,83 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test counting the frames a picker draws.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PickerRedrawTest {
+
+    @Rule
+    public ActivityTestRule<Main2Activity> activityRule = new ActivityTestRule<>(Main2Activity.class);
+
+    private Picker picker;
+    private final PickerMetrics metrics = new PickerMetrics();
+
+    @Before
+    public void setUp() {
+        picker = activityRule.getActivity().findViewById(R.id.picker);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                picker.setMetricsListener(metrics);
+            }
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        SystemClock.sleep(500);
+        metrics.reset();
+    }
+
+    @Test
+    public void staticPicker_drawsNothing() {
+        SystemClock.sleep(1000);
+        assertEquals(0, metrics.getFramesDrawn());
+    }
+
+    @Test
+    public void touchWithoutMoving_drawsNothing() {
+        long downTime = SystemClock.uptimeMillis();
+        float y = picker.getHeight() / 2f;
+        sendTouch(downTime, MotionEvent.ACTION_DOWN, y);
+        sendTouch(downTime, MotionEvent.ACTION_MOVE, y);
+        sendTouch(downTime, MotionEvent.ACTION_MOVE, y);
+        SystemClock.sleep(500);
+        assertEquals(0, metrics.getFramesDrawn());
+        sendTouch(downTime, MotionEvent.ACTION_CANCEL, y);
+    }
+
+    @Test
+    public void drag_drawsFrames() {
+        long downTime = SystemClock.uptimeMillis();
+        float y = picker.getHeight() / 2f;
+        sendTouch(downTime, MotionEvent.ACTION_DOWN, y);
+        sendTouch(downTime, MotionEvent.ACTION_MOVE, y + 40);
+        SystemClock.sleep(200);
+        assertTrue(metrics.getFramesDrawn() > 0);
+        sendTouch(downTime, MotionEvent.ACTION_CANCEL, y + 40);
+    }
+
+    private void sendTouch(final long downTime, final int action, final float y) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action,
+                        picker.getWidth() / 2f, y, 0);
+                picker.dispatchTouchEvent(event);
+                event.recycle();
+            }
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+}
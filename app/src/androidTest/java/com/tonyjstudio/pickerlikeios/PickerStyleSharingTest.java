@@ -0,0 +1,80 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.ViewGroup;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test of the style registry: pickers of one style share it while attached, nothing stays after.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PickerStyleSharingTest {
+
+    private static final int PICKERS = 30;
+
+    @Rule
+    public ActivityTestRule<Main2Activity> activityRule = new ActivityTestRule<>(Main2Activity.class);
+
+    @Test
+    public void pickersOfOneStyle_shareOneRegisteredStyle() {
+        final ViewGroup root = (ViewGroup) activityRule.getActivity().findViewById(android.R.id.content);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                int before = PickerStyles.size();
+                List<Picker> pickers = new ArrayList<>();
+                for (int i = 0; i < PICKERS; i++) {
+                    Picker picker = new Picker(activityRule.getActivity());
+                    picker.setTextSize(21);
+                    root.addView(picker, new ViewGroup.LayoutParams(600, 400));
+                    pickers.add(picker);
+                }
+                assertEquals(before + 1, PickerStyles.size());
+
+                // a picker changing its colour moves to a style of its own, the others keep theirs
+                pickers.get(0).setCenterTextColor(0xffff0000);
+                assertEquals(before + 2, PickerStyles.size());
+                pickers.get(0).setCenterTextColor(0xff313131);
+                assertEquals(before + 1, PickerStyles.size());
+
+                for (Picker picker : pickers) {
+                    root.removeView(picker);
+                }
+                assertEquals(before, PickerStyles.size());
+            }
+        });
+    }
+
+    @Test
+    public void detachedPicker_registersItsStyleAgainOnAttach() {
+        final ViewGroup root = (ViewGroup) activityRule.getActivity().findViewById(android.R.id.content);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                int before = PickerStyles.size();
+                Picker picker = new Picker(activityRule.getActivity());
+                picker.setTextSize(23);
+                // not attached yet, nothing is held
+                assertEquals(before, PickerStyles.size());
+                root.addView(picker);
+                assertEquals(before + 1, PickerStyles.size());
+                root.removeView(picker);
+                assertEquals(before, PickerStyles.size());
+                picker.setDividerColor(0xff00ff00);
+                root.addView(picker);
+                assertEquals(before + 1, PickerStyles.size());
+                root.removeView(picker);
+            }
+        });
+    }
+}
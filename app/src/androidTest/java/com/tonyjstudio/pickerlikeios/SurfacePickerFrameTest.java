@@ -0,0 +1,238 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test flinging a picker while the UI thread is blocked, the surface picker keeps its frame pacing.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SurfacePickerFrameTest {
+
+    // the UI thread is blocked for this long in slices, as a busy screen would
+    private static final long LOAD_MILLIS = 600;
+    private static final long LOAD_SLICE_MILLIS = 150;
+    private static final float FLING_VELOCITY = -6000f;
+
+    @Rule
+    public ActivityTestRule<Main2Activity> activityRule = new ActivityTestRule<>(Main2Activity.class);
+
+    private View picker;
+
+    @After
+    public void tearDown() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                contentRoot().removeView(picker);
+            }
+        });
+    }
+
+    @Test
+    public void busyUiThread_surfacePickerKeepsFramePacing() {
+        final TickRecorder ticks = new TickRecorder();
+        final SurfacePicker surfacePicker = new SurfacePicker(activityRule.getActivity());
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                surfacePicker.setItems(labels(5000));
+                surfacePicker.setMetricsListener(ticks);
+                attach(surfacePicker);
+            }
+        });
+        // the surface is created and the first frame drawn
+        SystemClock.sleep(500);
+
+        long[] window = flingUnderLoad(new Runnable() {
+            @Override
+            public void run() {
+                surfacePicker.scrollBy(FLING_VELOCITY);
+            }
+        });
+        long frameNanos = frameIntervalNanos();
+        List<Long> loaded = ticks.between(window[0], window[1]);
+        long expected = (window[1] - window[0]) / frameNanos;
+        assertTrue("ticks under load " + loaded.size() + " of " + expected, loaded.size() >= expected * 8 / 10);
+        long longestGap = longestGap(loaded);
+        assertTrue("longest gap " + longestGap / 1000000 + "ms", longestGap < 3 * frameNanos);
+        assertTrue("frames drawn " + ticks.framesDrawn, ticks.framesDrawn >= loaded.size());
+    }
+
+    @Test
+    public void busyUiThread_uiThreadPickerStalls() {
+        // the load is real: the same fling on the UI thread gets no frames while it is blocked
+        final TickRecorder ticks = new TickRecorder();
+        final Picker uiPicker = new Picker(activityRule.getActivity());
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                uiPicker.setItems(labels(5000));
+                uiPicker.setMetricsListener(ticks);
+                attach(uiPicker);
+            }
+        });
+        SystemClock.sleep(500);
+
+        long[] window = flingUnderLoad(new Runnable() {
+            @Override
+            public void run() {
+                uiPicker.scrollBy(FLING_VELOCITY);
+            }
+        });
+        assertTrue(ticks.between(window[0], window[1]).size() <= 2 * LOAD_MILLIS / LOAD_SLICE_MILLIS);
+    }
+
+    @Test
+    public void reattachAtOnce_keepsDrawingAndReportsNoSelectionWhileDetached() {
+        final TickRecorder ticks = new TickRecorder();
+        final SurfacePicker surfacePicker = new SurfacePicker(activityRule.getActivity());
+        final int[] selections = new int[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                surfacePicker.setItems(labels(5000));
+                surfacePicker.setMetricsListener(ticks);
+                attach(surfacePicker);
+            }
+        });
+        SystemClock.sleep(500);
+
+        for (int i = 0; i < 20; i++) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    surfacePicker.setListener(new Picker.OnItemSelectedListener() {
+                        @Override
+                        public void onItemSelected(int index) {
+                            selections[0]++;
+                        }
+                    });
+                    surfacePicker.scrollBy(FLING_VELOCITY);
+                    // the new render thread starts while the old one still stops the fling
+                    contentRoot().removeView(surfacePicker);
+                    contentRoot().addView(surfacePicker, new ViewGroup.LayoutParams(600, 400));
+                }
+            });
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        SystemClock.sleep(500);
+        assertEquals("selections reported by detached flings", 0, selections[0]);
+
+        final int before = surfacePicker.getSelectedItem();
+        int framesBefore = ticks.framesDrawn;
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                surfacePicker.scrollBy(FLING_VELOCITY);
+            }
+        });
+        SystemClock.sleep(3000);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertTrue("frames after reattach", ticks.framesDrawn > framesBefore);
+        assertEquals(1, selections[0]);
+        assertNotEquals(before, surfacePicker.getSelectedItem());
+    }
+
+    /*
+     * start a fling on the UI thread, then block it; returns the start and end of the load in nanoseconds
+     */
+    private static long[] flingUnderLoad(final Runnable fling) {
+        final long[] window = new long[2];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(fling);
+        for (long blocked = 0; blocked < LOAD_MILLIS; blocked += LOAD_SLICE_MILLIS) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    if (window[0] == 0) {
+                        window[0] = System.nanoTime();
+                    }
+                    SystemClock.sleep(LOAD_SLICE_MILLIS);
+                    window[1] = System.nanoTime();
+                }
+            });
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        return window;
+    }
+
+    private void attach(View view) {
+        picker = view;
+        contentRoot().addView(view, new ViewGroup.LayoutParams(600, 400));
+    }
+
+    private long frameIntervalNanos() {
+        float refreshRate = activityRule.getActivity().getWindowManager().getDefaultDisplay().getRefreshRate();
+        return (long) (1000000000L / refreshRate);
+    }
+
+    private ViewGroup contentRoot() {
+        return (ViewGroup) activityRule.getActivity().findViewById(android.R.id.content);
+    }
+
+    private static long longestGap(List<Long> times) {
+        long longest = 0;
+        for (int i = 1; i < times.size(); i++) {
+            longest = Math.max(longest, times.get(i) - times.get(i - 1));
+        }
+        return longest;
+    }
+
+    private static List<String> labels(int count) {
+        List<String> labels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            labels.add("Item " + i);
+        }
+        return labels;
+    }
+
+    /*
+     * vsync times of the animation steps, recorded on the thread the picker animates on
+     */
+    private static final class TickRecorder implements PickerMetricsListener {
+        private final List<Long> ticks = new ArrayList<>();
+        volatile int framesDrawn;
+
+        @Override
+        public void onFrameDrawn(long drawNanos, int cacheHits, int cacheMisses) {
+            framesDrawn++;
+        }
+
+        @Override
+        public synchronized void onAnimationTick(long frameTimeNanos) {
+            ticks.add(frameTimeNanos);
+        }
+
+        @Override
+        public void onFlingFinished(long durationNanos) {
+        }
+
+        @Override
+        public void onItemSelected(long sinceTouchUpNanos) {
+        }
+
+        synchronized List<Long> between(long startNanos, long endNanos) {
+            List<Long> window = new ArrayList<>();
+            for (long tick : ticks) {
+                if (tick >= startNanos && tick <= endNanos) {
+                    window.add(tick);
+                }
+            }
+            return window;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Drives picker animations from the display vsync.
+ * One instance exists per looper thread and is shared by every picker on it, a single
+ * Choreographer frame callback is posted only while at least one animation is running.
+ */
+final class FrameScheduler implements Choreographer.FrameCallback {
+
+    private static final ThreadLocal<FrameScheduler> sInstance = new ThreadLocal<>();
+
+    /*
+     * Step of an animation, called once per frame on the looper thread
+     */
+    interface Animation {
+        /**
+         * advance the animation to the given frame time
+         * @param frameTimeNanos vsync time of the frame, in {@link System#nanoTime()} base
+         * @return true to keep receiving frames, false when finished
+         */
+        boolean doAnimationFrame(long frameTimeNanos);
+    }
+
+    private final Choreographer choreographer;
+    private final ArrayList<Animation> animations = new ArrayList<>();
+    private boolean callbackPosted;
+    private boolean inFrame;
+
+    private FrameScheduler() {
+        choreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * scheduler of the calling thread, which must have a looper
+     */
+    static FrameScheduler getInstance() {
+        FrameScheduler scheduler = sInstance.get();
+        if (scheduler == null) {
+            scheduler = new FrameScheduler();
+            sInstance.set(scheduler);
+        }
+        return scheduler;
+    }
+
+    void start(Animation animation) {
+        if (!animations.contains(animation)) {
+            animations.add(animation);
+        }
+        if (!callbackPosted) {
+            choreographer.postFrameCallback(this);
+            callbackPosted = true;
+        }
+    }
+
+    void stop(Animation animation) {
+        int index = animations.indexOf(animation);
+        if (index < 0) {
+            return;
+        }
+        if (inFrame) {
+            // removed after the frame, so the running loop keeps its indices
+            animations.set(index, null);
+        } else {
+            animations.remove(index);
+            if (animations.isEmpty() && callbackPosted) {
+                choreographer.removeFrameCallback(this);
+                callbackPosted = false;
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        callbackPosted = false;
+        inFrame = true;
+        // animations started during this frame get their first step on the next one
+        int count = animations.size();
+        for (int i = 0; i < count; i++) {
+            Animation animation = animations.get(i);
+            if (animation != null && !animation.doAnimationFrame(frameTimeNanos)) {
+                // the animation may have been stopped or restarted from its own step
+                if (animations.get(i) == animation) {
+                    animations.set(i, null);
+                }
+            }
+        }
+        inFrame = false;
+        for (int i = animations.size() - 1; i >= 0; i--) {
+            if (animations.get(i) == null) {
+                animations.remove(i);
+            }
+        }
+        if (!animations.isEmpty() && !callbackPosted) {
+            choreographer.postFrameCallback(this);
+            callbackPosted = true;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+
+import java.util.Arrays;
+
+/**
+ * Bitmap atlas of pre-rendered item labels.
+ * The atlas is one alpha-only bitmap split into rows of one item height, each row holds the label of
+ * one item for one text paint, and is drawn tinted with the paint colour, so colour changes keep the rows.
+ * The number of rows is bounded by a memory budget and the least recently drawn row is reused on a miss.
+ * The default budget follows the row size and holds the rows of two frames, so labels scrolled back into view
+ * are still there. A budget too small for the rows of one frame leaves the atlas unusable, reusing a row drawn
+ * in the same frame would show the wrong label and upload the bitmap again on every frame.
+ */
+final class LabelAtlas {
+
+    static final int KIND_OUTER = 0;
+    static final int KIND_CENTER = 1;
+    private static final long NO_KEY = -1L;
+    private static final int MAX_ROWS = 64;
+    // budget meaning the rows of DEFAULT_FRAMES frames, whatever the row size
+    static final int DEFAULT_BUDGET = 0;
+    private static final int DEFAULT_FRAMES = 2;
+
+    private final int maxBytes;
+
+    private Bitmap bitmap;
+    private Canvas atlasCanvas;
+    private int rowWidth;
+    private int rowHeight;
+    private int visibleCount;
+    private long[] rowKeys = new long[0];
+    private long[] rowUses = new long[0];
+    private long useCounter;
+
+    private final Rect src = new Rect();
+    private final Rect dst = new Rect();
+    private final Paint renderPaint = new Paint();
+    private final Paint blitPaint = new Paint();
+
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * @param maxBytes memory budget of the atlas bitmap, or {@link #DEFAULT_BUDGET}
+     */
+    LabelAtlas(int maxBytes) {
+        this.maxBytes = maxBytes;
+        blitPaint.setFilterBitmap(true);
+    }
+
+    /**
+     * size the rows, reallocates the bitmap and drops all labels when the size changes
+     * @param rowWidth width of a label row, the labels keep their x position
+     * @param rowHeight height of one item
+     * @param visibleCount items shown by the wheel
+     */
+    void configure(int rowWidth, int rowHeight, int visibleCount) {
+        if (rowWidth == this.rowWidth && rowHeight == this.rowHeight && visibleCount == this.visibleCount
+                && bitmap != null) {
+            return;
+        }
+        release();
+        this.rowWidth = rowWidth;
+        this.rowHeight = rowHeight;
+        this.visibleCount = visibleCount;
+        if (rowWidth <= 0 || rowHeight <= 0) {
+            return;
+        }
+        // a frame draws the visible items and one partly shown at each end, each with both paints at most
+        int frameRows = 2 * (visibleCount + 2);
+        int rows = maxBytes == DEFAULT_BUDGET ? DEFAULT_FRAMES * frameRows
+                : (int) Math.min(Math.max(MAX_ROWS, frameRows), maxBytes / ((long) rowWidth * rowHeight));
+        if (rows < frameRows) {
+            return;
+        }
+        bitmap = Bitmap.createBitmap(rowWidth, rows * rowHeight, Bitmap.Config.ALPHA_8);
+        atlasCanvas = new Canvas(bitmap);
+        rowKeys = new long[rows];
+        rowUses = new long[rows];
+        Arrays.fill(rowKeys, NO_KEY);
+    }
+
+    /**
+     * false before the rows are sized, and when the budget does not fit the rows of one frame
+     */
+    boolean isUsable() {
+        return bitmap != null;
+    }
+
+    /**
+     * row holding the label of an item, or -1 on a miss
+     * @param position index of the item
+     * @param kind {@link #KIND_OUTER} or {@link #KIND_CENTER}
+     */
+    int find(int position, int kind) {
+        long key = key(position, kind);
+        for (int row = 0; row < rowKeys.length; row++) {
+            if (rowKeys[row] == key) {
+                rowUses[row] = ++useCounter;
+                hitCount++;
+                return row;
+            }
+        }
+        missCount++;
+        return -1;
+    }
+
+    /**
+     * take the least recently used row for a label, the caller then renders the label into it
+     */
+    int put(int position, int kind) {
+        int row = 0;
+        for (int i = 1; i < rowUses.length; i++) {
+            if (rowUses[i] < rowUses[row]) {
+                row = i;
+            }
+        }
+        rowKeys[row] = key(position, kind);
+        rowUses[row] = ++useCounter;
+        return row;
+    }
+
+    /**
+     * draw a label into a row, at the position it has in the item
+     */
+    void renderRow(int row, String text, float x, float baseline, Paint paint) {
+        Canvas canvas = beginRow(row, paint);
+        canvas.drawText(text, x, baseline, renderPaint);
+        canvas.restore();
+    }
+
+    /**
+     * draw a label given as chars into a row, at the position it has in the item
+     */
+    void renderRow(int row, char[] text, int length, float x, float baseline, Paint paint) {
+        Canvas canvas = beginRow(row, paint);
+        canvas.drawText(text, 0, length, x, baseline, renderPaint);
+        canvas.restore();
+    }
+
+    /*
+     * clear the row and map item coordinates to it, the paint is copied with an opaque colour
+     */
+    private Canvas beginRow(int row, Paint paint) {
+        renderPaint.set(paint);
+        renderPaint.setColor(0xff000000);
+        atlasCanvas.save();
+        atlasCanvas.clipRect(0, row * rowHeight, rowWidth, (row + 1) * rowHeight);
+        atlasCanvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        atlasCanvas.translate(0, row * rowHeight);
+        return atlasCanvas;
+    }
+
+    /**
+     * blit a row at the item origin of the canvas, tinted with the paint colour
+     */
+    void drawRow(Canvas canvas, int row, Paint paint) {
+        src.set(0, row * rowHeight, rowWidth, (row + 1) * rowHeight);
+        dst.set(0, 0, rowWidth, rowHeight);
+        blitPaint.setColor(paint.getColor());
+        canvas.drawBitmap(bitmap, src, dst, blitPaint);
+    }
+
+    /**
+     * drop all labels, call when the items or the text paints change
+     */
+    void clear() {
+        Arrays.fill(rowKeys, NO_KEY);
+        Arrays.fill(rowUses, 0L);
+    }
+
+    /**
+     * follow a change of the items: drop the labels of the changed range and move the rows after it
+     * to their new positions, the other labels are kept
+     * @param start first changed position
+     * @param removedCount items removed from start
+     * @param insertedCount items inserted at start
+     */
+    void onItemsChanged(int start, int removedCount, int insertedCount) {
+        long shift = (long) (insertedCount - removedCount) << 1;
+        for (int row = 0; row < rowKeys.length; row++) {
+            if (rowKeys[row] == NO_KEY) {
+                continue;
+            }
+            int position = (int) (rowKeys[row] >> 1);
+            if (position >= start + removedCount) {
+                rowKeys[row] += shift;
+            } else if (position >= start) {
+                rowKeys[row] = NO_KEY;
+                rowUses[row] = 0L;
+            }
+        }
+    }
+
+    /**
+     * recycle the bitmap, {@link #configure(int, int, int)} allocates a new one
+     */
+    void release() {
+        if (bitmap != null) {
+            bitmap.recycle();
+            bitmap = null;
+            atlasCanvas = null;
+        }
+        rowKeys = new long[0];
+        rowUses = new long[0];
+    }
+
+    int getHitCount() {
+        return hitCount;
+    }
+
+    int getMissCount() {
+        return missCount;
+    }
+
+    private static long key(int position, int kind) {
+        return ((long) position << 1) | kind;
+    }
+}
@@ -0,0 +1,222 @@
+package com.tonyjstudio.pickerlikeios;
+
+import com.tonyjstudio.pickerlikeios.wheel.Cascade;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Pickers chained into a cascade, like country, region and city or year, month and day: the items of each picker
+ * after the first are loaded for the items selected in the pickers before it, see {@link Cascade}.
+ * Items are loaded on the picker background thread and kept in an LRU cache per selected path, a load for a
+ * parent position the user already left is skipped or dropped. While a parent scrolls, the items of its child
+ * for the item passing the middle are loaded ahead, so the child usually changes on the frame the parent settles.
+ * A child keeps its selected item when its label is still in the new items.
+ * The controller takes over the selection and scroll listeners of the pickers, listen to it instead.
+ * Used on the UI thread.
+ */
+public class LinkedPickers {
+
+    private static final int DEFAULT_CACHE_SIZE = 32;
+    // the child items of a scrolling parent are loaded ahead at most this often
+    private static final long PREFETCH_INTERVAL_MILLIS = 100;
+
+    /**
+     * Items of the linked pickers after the first
+     */
+    public interface Source {
+        /**
+         * items of a picker for the items selected before it, called on a background thread
+         * @param level index of the picker, from 1
+         * @param path positions selected in the pickers 0 to level - 1
+         * @return the items, the same for the same path until {@link #refresh()}
+         */
+        List<String> loadItems(int level, int[] path) throws Exception;
+    }
+
+    /**
+     * Callback interface use to get the selection of all the pickers
+     */
+    public interface OnPathSelectedListener {
+        /**
+         * @param path position selected in every picker, from the first
+         */
+        void onPathSelected(int[] path);
+    }
+
+    private final Picker[] pickers;
+    private final Source source;
+    private final Executor loadExecutor;
+    private final Executor resultExecutor;
+    private final Cascade<List<String>> cascade;
+    private OnPathSelectedListener onPathSelectedListener;
+    // picker whose items are being replaced, the selection it reports meanwhile is read afterwards
+    private int updatingLevel = -1;
+
+    /**
+     * @param source items of the pickers after the first, the first picker has its items set already
+     * @param pickers in order, each depending on the ones before it
+     */
+    public LinkedPickers(Source source, Picker... pickers) {
+        this(source, DEFAULT_CACHE_SIZE, pickers);
+    }
+
+    /**
+     * @param cacheSize item lists kept over all pickers, a few times the items of a parent are enough to scroll
+     *                  back and forth without loading again
+     */
+    public LinkedPickers(Source source, int cacheSize, Picker... pickers) {
+        this(source, cacheSize, PickerExecutors.background(), PickerExecutors.mainThread(), pickers);
+    }
+
+    /**
+     * @param loadExecutor runs the loads
+     * @param resultExecutor hands loaded items back to the UI thread
+     */
+    LinkedPickers(Source source, int cacheSize, Executor loadExecutor, Executor resultExecutor, Picker[] pickers) {
+        if (pickers.length < 2) {
+            throw new IllegalArgumentException("at least two pickers are linked, got " + pickers.length);
+        }
+        this.pickers = pickers.clone();
+        this.source = source;
+        this.loadExecutor = loadExecutor;
+        this.resultExecutor = resultExecutor;
+        cascade = new Cascade<>(pickers.length, cacheSize, new Cascade.Loader() {
+            @Override
+            public void load(int level, int[] path, int generation) {
+                LinkedPickers.this.load(level, path, generation);
+            }
+        }, new Cascade.Listener<List<String>>() {
+            @Override
+            public void onLevelData(int level, List<String> items) {
+                showItems(level, items);
+            }
+        });
+        for (int i = 0; i < pickers.length; i++) {
+            link(i);
+        }
+    }
+
+    private void link(final int level) {
+        Picker picker = pickers[level];
+        picker.setListener(new Picker.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(int index) {
+                if (level != updatingLevel) {
+                    onSettled(level, index);
+                }
+            }
+        });
+        if (level < pickers.length - 1) {
+            picker.setOnItemScrollListener(new Picker.OnItemScrollListener() {
+                @Override
+                public void onItemScrolled(int index) {
+                    cascade.preview(level, index);
+                }
+            }, PREFETCH_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * get the positions of all the pickers once the last one settled after a change
+     * @param listener
+     */
+    public void setOnPathSelectedListener(OnPathSelectedListener listener) {
+        onPathSelectedListener = listener;
+    }
+
+    /**
+     * jump a picker to an item and show the items of the pickers after it, call it on the first picker to
+     * fill the others
+     * @param level index of the picker
+     * @param position
+     */
+    public void select(int level, int position) {
+        pickers[level].setCurrentPosition(position);
+        onSettled(level, position);
+    }
+
+    /**
+     * positions selected in every picker
+     */
+    public int[] getSelectedPath() {
+        return cascade.getPath();
+    }
+
+    /**
+     * drop the cached items and load the items of the current selection again, call when the source changed
+     */
+    public void refresh() {
+        cascade.clear();
+        int[] path = cascade.getPath();
+        onSettled(0, path[0]);
+    }
+
+    /*
+     * a picker settled, the pickers after it follow
+     */
+    private void onSettled(int level, int position) {
+        cascade.select(level, position);
+        if (level == pickers.length - 1 && onPathSelectedListener != null) {
+            onPathSelectedListener.onPathSelected(cascade.getPath());
+        }
+    }
+
+    /*
+     * replace the items of a picker, then go on down the chain from the item it shows
+     */
+    private void showItems(int level, List<String> items) {
+        updatingLevel = level;
+        try {
+            pickers[level].updateItems(items);
+        } finally {
+            updatingLevel = -1;
+        }
+        int position = pickers[level].getCenterItem();
+        if (position != -1) {
+            onSettled(level, position);
+            return;
+        }
+        // nothing to select, the pickers after it have nothing to show
+        for (int deeper = level + 1; deeper < pickers.length; deeper++) {
+            pickers[deeper].updateItems(Collections.<String>emptyList());
+        }
+    }
+
+    private void load(final int level, final int[] path, final int generation) {
+        loadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // the parent moved on while the load waited
+                if (!cascade.isCurrent(level, generation)) {
+                    return;
+                }
+                List<String> loaded;
+                try {
+                    loaded = source.loadItems(level, path);
+                    if (loaded == null) {
+                        throw new IllegalStateException("source returned no items for level " + level);
+                    }
+                } catch (Exception e) {
+                    deliver(level, path, generation, null);
+                    return;
+                }
+                deliver(level, path, generation, loaded);
+            }
+        });
+    }
+
+    private void deliver(final int level, final int[] path, final int generation, final List<String> loaded) {
+        resultExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (loaded == null) {
+                    cascade.onFailed(level, generation);
+                } else {
+                    cascade.onLoaded(level, path, generation, loaded);
+                }
+            }
+        });
+    }
+}
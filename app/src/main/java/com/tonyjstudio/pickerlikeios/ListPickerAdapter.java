@@ -0,0 +1,32 @@
+package com.tonyjstudio.pickerlikeios;
+
+import java.util.List;
+
+/**
+ * Adapter over a list of labels, the list is read in place and not copied.
+ */
+public class ListPickerAdapter implements PickerAdapter {
+
+    private final List<String> items;
+
+    public ListPickerAdapter(List<String> items) {
+        this.items = items;
+    }
+
+    @Override
+    public int getCount() {
+        return items.size();
+    }
+
+    @Override
+    public String getItemText(int position) {
+        return items.get(position);
+    }
+
+    /**
+     * copy of the labels, another thread can read it while the list changes
+     */
+    String[] snapshot() {
+        return items.toArray(new String[items.size()]);
+    }
+}
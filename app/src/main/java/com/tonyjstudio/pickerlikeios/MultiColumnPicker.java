@@ -0,0 +1,442 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several wheels side by side in one view, for date and time pickers.
+ * The columns share the divider lines, the paints, the wheel geometry and the frame callback, each column
+ * has its own items and scrolls on its own. The width is split between the columns by their weights.
+ * Takes the same attributes as {@link Picker}.
+ */
+public class MultiColumnPicker extends View {
+    private static final float DEFAULT_SCALE_X = 1.5f;
+
+    private WheelGestures gestures;
+    private OnColumnSelectedListener onColumnSelectedListener;
+
+    // paints and label widths, shared with the other pickers of the same style
+    private PickerStyle style;
+    // a reference on the style is held while attached
+    private boolean styleAcquired;
+    private WheelRenderer renderer;
+    private WheelLayout layout;
+    private boolean defaultLoop;
+
+    private final List<WheelColumn> columns = new ArrayList<>();
+    private final List<Float> weights = new ArrayList<>();
+    // left edge of every column and the right edge of the last one
+    private int[] columnEdges = new int[1];
+
+    // column under the finger, null between touches
+    private WheelColumn touchedColumn;
+
+    private final WheelColumn.Host columnHost = new WheelColumn.Host() {
+        @Override
+        public void onColumnScrolled(WheelColumn column) {
+            invalidate();
+        }
+
+        @Override
+        public void onColumnSettled(WheelColumn column) {
+            if (onColumnSelectedListener != null) {
+                onColumnSelectedListener.onItemSelected(columns.indexOf(column), column.getSelectedItem());
+            }
+        }
+
+        @Override
+        public void onColumnAnimationTick(WheelColumn column, long frameTimeNanos) {
+        }
+
+        @Override
+        public void onColumnFlingFinished(WheelColumn column, long durationNanos) {
+        }
+
+        @Override
+        public void onColumnItemsChanged(WheelColumn column, int start, int removedCount, int insertedCount) {
+            invalidate();
+        }
+    };
+
+    // drives the column under the finger
+    private final WheelGestures.Callback gestureCallback = new WheelGestures.Callback() {
+        @Override
+        public void onDown(float x) {
+            touchedColumn = columnAt(x);
+            touchedColumn.cancelAnimation();
+        }
+
+        @Override
+        public void onDrag(int dy) {
+            if (touchedColumn != null && touchedColumn.getCount() > 0) {
+                touchedColumn.drag(dy);
+            }
+        }
+
+        @Override
+        public void onFling(float velocityY) {
+            WheelColumn column = takeTouchedColumn();
+            if (column != null) {
+                column.fling(velocityY);
+            }
+        }
+
+        @Override
+        public void onRelease(float y, boolean tap) {
+            WheelColumn column = takeTouchedColumn();
+            if (column != null) {
+                int scrollY = column.scrollState.getScrollY();
+                // a tap brings the tapped item to the middle, a drag settles on the closest item
+                column.snap(tap ? layout.tapDistance(y, scrollY) : layout.snapDistance(scrollY));
+            }
+        }
+    };
+
+    public MultiColumnPicker(Context context) {
+        super(context);
+        initPicker(context, null);
+    }
+
+    public MultiColumnPicker(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        initPicker(context, attrs);
+    }
+
+    public MultiColumnPicker(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initPicker(context, attrs);
+    }
+
+    /**
+     * initialize picker
+     */
+    private void initPicker(Context context, AttributeSet attributeSet) {
+        gestures = new WheelGestures(context, gestureCallback);
+        PickerAttributes attributes = new PickerAttributes(context, attributeSet);
+        defaultLoop = attributes.loop;
+        layout = new WheelLayout(attributes.visibleCount, attributes.lineSpacingMultiplier);
+
+        style = PickerStyles.get(attributes.styleKey(DEFAULT_SCALE_X));
+        renderer = new WheelRenderer(style.outerPaint, style.centerPaint, style.dividerPaint);
+    }
+
+    /**
+     * add a column at the right, it loops unless the isLoop attribute is false
+     * @param adapter items of the column
+     * @param weight share of the width, relative to the other columns
+     * @return index of the column
+     */
+    public int addColumn(PickerAdapter adapter, float weight) {
+        WheelColumn column = new WheelColumn(columnHost, layout, style.outerPaint, style.centerPaint, DEFAULT_SCALE_X);
+        column.setStyle(style);
+        column.setLoop(defaultLoop);
+        column.setAdapter(adapter);
+        columns.add(column);
+        weights.add(weight > 0 ? weight : 1f);
+        layoutColumns();
+        if (layout.isMeasured()) {
+            column.initPositionIfUnset();
+        }
+        invalidate();
+        return columns.size() - 1;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * replace the items of a column, the column keeps its scroll position when the item still exists
+     * @param column
+     * @param adapter
+     */
+    public void setColumnAdapter(int column, PickerAdapter adapter) {
+        WheelColumn wheel = columns.get(column);
+        wheel.cancelAnimation();
+        // the column brings its initial position and scroll back onto the new items
+        wheel.setAdapter(adapter);
+        invalidate();
+    }
+
+    /**
+     * change the items of a column to a new list of labels, the column keeps its selected item if it is still
+     * in the list and redraws only the range that differs, see {@link MutableListPickerAdapter}
+     * @param column
+     * @param items
+     */
+    public void updateColumnItems(int column, List<String> items) {
+        WheelColumn wheel = columns.get(column);
+        PickerAdapter adapter = wheel.getAdapter();
+        if (adapter instanceof MutableListPickerAdapter) {
+            ((MutableListPickerAdapter) adapter).updateItems(items);
+        } else {
+            setColumnAdapter(column, new MutableListPickerAdapter(items));
+        }
+    }
+
+    public PickerAdapter getColumnAdapter(int column) {
+        return columns.get(column).getAdapter();
+    }
+
+    /**
+     * wrap a column around its ends or stop at its first and last item
+     * @param column
+     * @param loop
+     */
+    public void setColumnLoop(int column, boolean loop) {
+        columns.get(column).setLoop(loop);
+        invalidate();
+    }
+
+    /**
+     * show an item of a column without animation
+     * @param column
+     * @param position
+     */
+    public void setCurrentPosition(int column, int position) {
+        WheelColumn wheel = columns.get(column);
+        if (position >= 0 && position < wheel.getCount()) {
+            wheel.setCurrentPosition(position);
+            wheel.setSelectedItem(position);
+            invalidate();
+        }
+    }
+
+    /**
+     * scroll a column to the first item whose label starts with the typed text, see {@link Picker#jumpToPrefix}
+     * @param column
+     * @param prefix
+     * @return position of the item, -1 when no label matches or the index is not built yet
+     */
+    public int jumpToPrefix(int column, CharSequence prefix) {
+        WheelColumn wheel = columns.get(column);
+        int position = wheel.findPrefix(prefix);
+        if (position != -1) {
+            wheel.jumpTo(position);
+        }
+        return position;
+    }
+
+    public int getSelectedItem(int column) {
+        return columns.get(column).getSelectedItem();
+    }
+
+    public void setListener(OnColumnSelectedListener listener) {
+        onColumnSelectedListener = listener;
+    }
+
+    /**
+     * set text size in dp
+     * @param size
+     */
+    public final void setTextSize(float size) {
+        if (size > 0.0F) {
+            int textSize = (int) (getResources().getDisplayMetrics().density * size);
+            restyle(style.key.withTextSize(textSize));
+        }
+    }
+
+    /**
+     * set typeface of the item text
+     * @param typeface
+     */
+    public final void setTypeface(Typeface typeface) {
+        restyle(style.key.withTypeface(typeface));
+    }
+
+    public void setCenterTextColor(int centerTextColor) {
+        restyle(style.key.withCenterColor(centerTextColor));
+    }
+
+    public void setOuterTextColor(int outerTextColor) {
+        restyle(style.key.withOuterColor(outerTextColor));
+    }
+
+    public void setDividerColor(int dividerColor) {
+        restyle(style.key.withDividerColor(dividerColor));
+    }
+
+    /**
+     * fade the labels towards the top and bottom edges into a colour, see {@link Picker#setFadeColor}
+     * @param fadeColor opaque colour, 0 for no fades
+     */
+    public void setFadeColor(int fadeColor) {
+        renderer.setFadeColor(fadeColor);
+        invalidate();
+    }
+
+    /*
+     * move to the shared style of the key, the labels are measured again with its paints
+     */
+    private void restyle(PickerStyle.Key key) {
+        applyStyle(PickerStyles.change(style, key, styleAcquired));
+    }
+
+    private void applyStyle(PickerStyle next) {
+        if (next == style) {
+            return;
+        }
+        style = next;
+        renderer.setPaints(style.outerPaint, style.centerPaint, style.dividerPaint);
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).setStyle(style);
+        }
+        invalidate();
+    }
+
+    /**
+     * stop the flings and smooth scrolls of all columns
+     */
+    public void cancelAnimations() {
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).cancelAnimation();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        if (layout.measure(getMeasuredHeight())) {
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).initPositionIfUnset();
+            }
+        }
+        layoutColumns();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // an equal style may have been registered by another picker meanwhile
+        applyStyle(PickerStyles.acquire(style));
+        styleAcquired = true;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        PickerStyles.release(style);
+        styleAcquired = false;
+        // nothing queued on the frame scheduler may keep the view alive, and no selection is reported while
+        // the host tears the view down
+        for (int i = 0; i < columns.size(); i++) {
+            WheelColumn column = columns.get(i);
+            column.finishAnimationQuietly();
+            column.releaseCaches();
+        }
+        touchedColumn = null;
+        gestures.release();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // also called while the constructor of View runs, before the columns exist
+        if (visibility != VISIBLE && columns != null) {
+            finishAnimations();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility != VISIBLE) {
+            finishAnimations();
+        }
+    }
+
+    /*
+     * settle every column on the item its animation was heading to
+     */
+    private void finishAnimations() {
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).finishAnimation();
+        }
+    }
+
+    /*
+     * split the width between the padding by the column weights
+     */
+    private void layoutColumns() {
+        int left = getPaddingLeft();
+        int right = getMeasuredWidth() - getPaddingRight();
+        if (columnEdges.length != columns.size() + 1) {
+            columnEdges = new int[columns.size() + 1];
+        }
+        float totalWeight = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            totalWeight += weights.get(i);
+        }
+        float x = left;
+        columnEdges[0] = left;
+        for (int i = 0; i < columns.size(); i++) {
+            x += (right - left) * weights.get(i) / totalWeight;
+            columnEdges[i + 1] = Math.round(x);
+        }
+        columnEdges[columns.size()] = right;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (columns.isEmpty() || !layout.isMeasured()) {
+            return;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            WheelColumn column = columns.get(i);
+            if (column.getCount() > 0) {
+                renderer.drawColumn(canvas, layout, column, columnEdges[i], columnEdges[i + 1], null);
+            }
+        }
+        renderer.drawChrome(canvas, layout, columnEdges[0], columnEdges[columns.size()]);
+    }
+
+    /*
+     * column under an x position, the outer columns also take the padding
+     */
+    private WheelColumn columnAt(float x) {
+        for (int i = 1; i < columns.size(); i++) {
+            if (x < columnEdges[i]) {
+                return columns.get(i - 1);
+            }
+        }
+        return columns.get(columns.size() - 1);
+    }
+
+    /*
+     * the column of the gesture that ends, null when it has no items
+     */
+    private WheelColumn takeTouchedColumn() {
+        WheelColumn column = touchedColumn;
+        touchedColumn = null;
+        return column != null && column.getCount() > 0 ? column : null;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (columns.isEmpty() || !layout.isMeasured()) {
+            return false;
+        }
+        return gestures.onTouchEvent(this, event);
+    }
+
+    /**
+     * Callback interface use to get the item a column settles on
+     */
+    public interface OnColumnSelectedListener {
+        /**
+         * @param column index of the column that came to rest
+         * @param index item the column came to rest on
+         */
+        void onItemSelected(int column, int index);
+    }
+}
@@ -0,0 +1,84 @@
+package com.tonyjstudio.pickerlikeios;
+
+import com.tonyjstudio.pickerlikeios.wheel.ItemDiff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter over a copy of a list of labels that can be edited while shown.
+ * Every edit tells the wheel the range it changed, the wheel then keeps the item it rests on selected and
+ * re-renders only that range. Use it for wheels that depend on another one, like the days of a month.
+ * Methods must be called on the UI thread.
+ */
+public class MutableListPickerAdapter extends ObservableAdapter {
+
+    private final ArrayList<String> items;
+
+    public MutableListPickerAdapter(List<String> items) {
+        this.items = new ArrayList<>(items);
+    }
+
+    @Override
+    public int getCount() {
+        return items.size();
+    }
+
+    @Override
+    public String getItemText(int position) {
+        return items.get(position);
+    }
+
+    /**
+     * copy of the labels, another thread can read it while the list is edited
+     */
+    String[] snapshot() {
+        return items.toArray(new String[items.size()]);
+    }
+
+    /**
+     * insert labels before a position
+     * @param position 0 to {@link #getCount()}
+     * @param newItems
+     */
+    public void insertItems(int position, List<String> newItems) {
+        items.addAll(position, newItems);
+        notifyItemRangeReplaced(position, 0, newItems.size());
+    }
+
+    /**
+     * remove a range of labels
+     * @param position first label to remove
+     * @param count
+     */
+    public void removeItems(int position, int count) {
+        items.subList(position, position + count).clear();
+        notifyItemRangeReplaced(position, count, 0);
+    }
+
+    /**
+     * replace one label, it counts as a new item
+     * @param position
+     * @param text
+     */
+    public void setItem(int position, String text) {
+        items.set(position, text);
+        notifyItemRangeReplaced(position, 1, 1);
+    }
+
+    /**
+     * replace all labels, applied as the one range that differs from the current labels
+     * @param newItems
+     */
+    public void updateItems(List<String> newItems) {
+        ItemDiff diff = ItemDiff.between(items, newItems);
+        if (diff.isEmpty()) {
+            return;
+        }
+        int start = diff.getStart();
+        List<String> range = items.subList(start, start + diff.getRemovedCount());
+        range.clear();
+        range.addAll(newItems.subList(start, start + diff.getInsertedCount()));
+        notifyItemRangeReplaced(start, diff.getRemovedCount(), diff.getInsertedCount());
+    }
+}
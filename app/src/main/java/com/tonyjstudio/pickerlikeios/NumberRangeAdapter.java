@@ -0,0 +1,222 @@
+package com.tonyjstudio.pickerlikeios;
+
+/**
+ * Adapter of the numbers from min to max by step, formatted with optional zero padding, prefix and suffix.
+ * Labels are written into a reusable char array when drawn, no String is created per item
+ * and memory does not depend on the size of the range.
+ */
+public class NumberRangeAdapter implements PickerAdapter {
+
+    // sign and the digits of Integer.MIN_VALUE
+    private static final int MAX_NUMBER_LENGTH = 11;
+    private static final int MAX_DIGITS = MAX_NUMBER_LENGTH - 1;
+
+    private final int min;
+    private final int max;
+    private final int step;
+    private final int count;
+    private final int minDigits;
+    private final char[] prefix;
+    private final char[] suffix;
+    private final char[] textBuffer;
+
+    /**
+     * @param min first value
+     * @param max last value, included when reached by step
+     * @param step difference between two items, must be positive
+     */
+    public NumberRangeAdapter(int min, int max, int step) {
+        this(min, max, step, 0, null, null);
+    }
+
+    /**
+     * @param min first value
+     * @param max last value, included when reached by step
+     * @param step difference between two items, must be positive
+     * @param minDigits pad with leading zeros up to this number of digits, 0 for none
+     * @param prefix text before the number, or null
+     * @param suffix text after the number, or null
+     */
+    public NumberRangeAdapter(int min, int max, int step, int minDigits, String prefix, String suffix) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive: " + step);
+        }
+        if (max < min) {
+            throw new IllegalArgumentException("max " + max + " is less than min " + min);
+        }
+        if (minDigits < 0) {
+            throw new IllegalArgumentException("minDigits must not be negative: " + minDigits);
+        }
+        this.min = min;
+        this.max = max;
+        this.step = step;
+        this.count = (int) Math.min(Integer.MAX_VALUE, ((long) max - min) / step + 1);
+        this.minDigits = minDigits;
+        this.prefix = prefix == null ? new char[0] : prefix.toCharArray();
+        this.suffix = suffix == null ? new char[0] : suffix.toCharArray();
+        textBuffer = new char[getMaxLength()];
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String getItemText(int position) {
+        int length = getItemChars(position, textBuffer);
+        return new String(textBuffer, 0, length);
+    }
+
+    /**
+     * write the label of an item into a buffer
+     * @param position index of the item
+     * @param buffer receives the label from index 0, at least {@link #getMaxLength()} long
+     * @return length of the label
+     */
+    public int getItemChars(int position, char[] buffer) {
+        int length = 0;
+        for (char c : prefix) {
+            buffer[length++] = c;
+        }
+        long value = getValue(position);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < minDigits; i++) {
+            buffer[length++] = '0';
+        }
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length = end;
+        for (char c : suffix) {
+            buffer[length++] = c;
+        }
+        return length;
+    }
+
+    /**
+     * size of a buffer that holds any label of this adapter
+     */
+    public int getMaxLength() {
+        return prefix.length + Math.max(minDigits + 1, MAX_NUMBER_LENGTH) + suffix.length;
+    }
+
+    /**
+     * number shown by an item
+     * @param position index of the item
+     */
+    public int getValue(int position) {
+        return min + position * step;
+    }
+
+    /**
+     * index of the item showing a number, or -1 when the number is not in the range
+     * @param value
+     */
+    public int getPosition(int value) {
+        if (value < min || value > max || ((long) value - min) % step != 0) {
+            return -1;
+        }
+        long position = ((long) value - min) / step;
+        return position < count ? (int) position : -1;
+    }
+
+    /**
+     * first item whose label starts with the text, ignoring case, computed from the range without reading the labels
+     * @param text typed text, an empty text matches nothing
+     * @return the position, or -1 when no label matches
+     */
+    public int findPrefix(CharSequence text) {
+        int length = text.length();
+        if (length == 0 || !regionMatches(prefix, text, 0, Math.min(length, prefix.length))) {
+            return -1;
+        }
+        if (length <= prefix.length) {
+            return 0;
+        }
+        boolean negative = text.charAt(prefix.length) == '-';
+        int start = negative ? prefix.length + 1 : prefix.length;
+        int found = -1;
+        // the digits after padding are at least minDigits long, try each length a label can have
+        for (int digits = Math.max(1, minDigits); digits <= Math.max(minDigits, MAX_DIGITS); digits++) {
+            int position = findPrefix(text, start, digits, negative);
+            if (position != -1 && (found == -1 || position < found)) {
+                found = position;
+            }
+        }
+        return found;
+    }
+
+    /*
+     * first item whose label starts with the text, among the labels with this number of digits
+     */
+    private int findPrefix(CharSequence text, int start, int digits, boolean negative) {
+        int end = start + digits;
+        int typed = Math.min(digits, text.length() - start);
+        int suffixTyped = text.length() - end;
+        if (suffixTyped > 0 && (suffixTyped > suffix.length || !regionMatches(suffix, text, end, suffixTyped))) {
+            return -1;
+        }
+        // digits past the ten of an int are padding zeros
+        int padding = Math.max(0, digits - MAX_DIGITS);
+        long typedDigits = 0;
+        for (int i = 0; i < typed; i++) {
+            char c = text.charAt(start + i);
+            if (c < '0' || c > '9' || i < padding && c != '0') {
+                return -1;
+            }
+            typedDigits = typedDigits * 10 + c - '0';
+        }
+        // magnitudes whose digits start with the typed ones
+        long lowest;
+        long highest;
+        if (typed <= padding) {
+            lowest = 0;
+            highest = pow10(digits - padding) - 1;
+        } else {
+            long scale = pow10(digits - typed);
+            lowest = typedDigits * scale;
+            highest = (typedDigits + 1) * scale - 1;
+        }
+        if (digits > minDigits) {
+            // not padded, the first digit is not a zero
+            lowest = Math.max(lowest, digits == 1 ? 0 : pow10(digits - 1));
+        }
+        long from = negative ? -highest : lowest;
+        long to = negative ? -Math.max(lowest, 1) : highest;
+        from = Math.max(from, min);
+        to = Math.min(to, max);
+        if (from > to) {
+            return -1;
+        }
+        // first value of the range reached by step
+        long position = (from - min + step - 1) / step;
+        return min + position * step <= to && position < count ? (int) position : -1;
+    }
+
+    private static long pow10(int exponent) {
+        long power = 1;
+        for (int i = 0; i < exponent; i++) {
+            power *= 10;
+        }
+        return power;
+    }
+
+    private static boolean regionMatches(char[] chars, CharSequence text, int textStart, int length) {
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(chars[i]) != Character.toLowerCase(text.charAt(textStart + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
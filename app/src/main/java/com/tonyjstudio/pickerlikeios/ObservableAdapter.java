@@ -0,0 +1,44 @@
+package com.tonyjstudio.pickerlikeios;
+
+/**
+ * Adapter whose items change while shown, it tells the wheel which range changed so the wheel keeps its
+ * selected item and redraws only that range. Changes are made and reported on the UI thread.
+ */
+abstract class ObservableAdapter implements PickerAdapter {
+
+    /*
+     * Told about changes of the items, on the UI thread
+     */
+    interface OnItemsChangedListener {
+        /**
+         * labels of a range changed, the items are the same, for example a page loaded in place of placeholders
+         */
+        void onItemRangeChanged(int start, int count);
+
+        /**
+         * items of a range were replaced, {@link PickerAdapter#getCount()} already returns the new count
+         * @param start first replaced position
+         * @param removedCount items removed from start
+         * @param insertedCount items inserted at start
+         */
+        void onItemRangeReplaced(int start, int removedCount, int insertedCount);
+    }
+
+    private OnItemsChangedListener onItemsChangedListener;
+
+    void setOnItemsChangedListener(OnItemsChangedListener listener) {
+        onItemsChangedListener = listener;
+    }
+
+    void notifyItemRangeChanged(int start, int count) {
+        if (onItemsChangedListener != null && count > 0) {
+            onItemsChangedListener.onItemRangeChanged(start, count);
+        }
+    }
+
+    void notifyItemRangeReplaced(int start, int removedCount, int insertedCount) {
+        if (onItemsChangedListener != null && (removedCount > 0 || insertedCount > 0)) {
+            onItemsChangedListener.onItemRangeReplaced(start, removedCount, insertedCount);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.tonyjstudio.pickerlikeios;
+
+import com.tonyjstudio.pickerlikeios.wheel.PagedItems;
+import com.tonyjstudio.pickerlikeios.wheel.ScrollCurve;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapter over a data set loaded in pages, for items in a database or behind a network call.
+ * Only the pages around the shown items are loaded, on the picker background thread, and items of
+ * pages not loaded yet show a placeholder. While the wheel flings, the pages up to where it will stop are
+ * loaded ahead. At most maxPages pages are kept, the pages farthest from the wheel are dropped first.
+ */
+public class PagedPickerAdapter extends ObservableAdapter {
+
+    /**
+     * Data set read by a {@link PagedPickerAdapter}
+     */
+    public interface Source {
+        /**
+         * number of items, called on the UI thread when the adapter is created or refreshed
+         */
+        int getCount();
+
+        /**
+         * load some items, called on a background thread
+         * @param start position of the first item
+         * @param count number of items to load
+         * @return the items, in order
+         */
+        List<String> loadItems(int start, int count) throws Exception;
+    }
+
+    private final Source source;
+    private final Executor loadExecutor;
+    private final Executor resultExecutor;
+    private final PagedItems<String> items;
+    private String placeholder = "";
+    // bumped on refresh, so pages loaded for the previous data are dropped
+    private int generation;
+
+    /**
+     * @param source data set to show
+     * @param pageSize items loaded at once
+     * @param maxPages pages kept in memory, should hold a few times the visible items
+     */
+    public PagedPickerAdapter(Source source, int pageSize, int maxPages) {
+        this(source, pageSize, maxPages, PickerExecutors.background(), PickerExecutors.mainThread());
+    }
+
+    /**
+     * @param loadExecutor runs the loads
+     * @param resultExecutor hands loaded pages back to the thread using the adapter
+     */
+    PagedPickerAdapter(Source source, int pageSize, int maxPages, Executor loadExecutor, Executor resultExecutor) {
+        this.source = source;
+        this.loadExecutor = loadExecutor;
+        this.resultExecutor = resultExecutor;
+        items = new PagedItems<>(pageSize, maxPages, new PagedItems.Loader() {
+            @Override
+            public void loadPage(int page, int start, int count) {
+                load(page, start, count);
+            }
+        });
+        items.reset(source.getCount());
+    }
+
+    /**
+     * label shown for items whose page is still loading
+     * @param placeholder
+     */
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * read the count again and drop all pages, call when the data set changed
+     */
+    public void refresh() {
+        generation++;
+        int oldCount = items.getItemCount();
+        items.reset(source.getCount());
+        notifyItemRangeReplaced(0, oldCount, items.getItemCount());
+    }
+
+    /**
+     * drop the loaded pages, for example on low memory, they are loaded again when shown
+     */
+    public void trimMemory() {
+        items.evictAll();
+    }
+
+    @Override
+    public int getCount() {
+        return items.getItemCount();
+    }
+
+    @Override
+    public String getItemText(int position) {
+        String text = items.get(position);
+        if (text == null) {
+            // the wheel normally requested the page already, this covers items read outside a frame
+            // without moving the range the wheel requested
+            items.requestItem(position);
+            return placeholder;
+        }
+        return text;
+    }
+
+    /**
+     * true when the label of the item is loaded
+     * @param position
+     */
+    public boolean isLoaded(int position) {
+        return items.get(position) != null;
+    }
+
+    /**
+     * load the pages of the shown items and, while flinging, up to where the wheel will stop
+     * @param center item in the middle of the wheel
+     * @param radius items shown on each side of the middle one
+     * @param itemsPerSecond scroll velocity, positive towards the last item
+     * @param loop the wheel wraps around its ends
+     */
+    void onScroll(int center, int radius, float itemsPerSecond, boolean loop) {
+        items.request(center, radius, itemsPerSecond, ScrollCurve.FLING_TIME_CONSTANT, loop);
+    }
+
+    private void load(final int page, final int start, final int count) {
+        final int loadGeneration = generation;
+        loadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<String> loaded;
+                try {
+                    loaded = source.loadItems(start, count);
+                    if (loaded == null || loaded.size() < count) {
+                        throw new IllegalStateException("source returned fewer items than requested");
+                    }
+                } catch (Exception e) {
+                    deliver(page, start, count, null, loadGeneration);
+                    return;
+                }
+                deliver(page, start, count, loaded, loadGeneration);
+            }
+        });
+    }
+
+    private void deliver(final int page, final int start, final int count, final List<String> loaded,
+                         final int loadGeneration) {
+        resultExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                if (loaded == null) {
+                    items.onPageFailed(page);
+                    return;
+                }
+                items.onPageLoaded(page, loaded);
+                // the placeholders of the page become labels, the items stay the same
+                notifyItemRangeChanged(start, count);
+            }
+        });
+    }
+}
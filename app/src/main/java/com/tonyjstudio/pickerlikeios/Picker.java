@@ -1,57 +1,123 @@
 package com.tonyjstudio.pickerlikeios;
 
 import android.content.Context;
-import android.content.res.Resources;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Rect;
 import android.graphics.Typeface;
-import android.os.Handler;
-import android.os.Message;
+import android.os.Looper;
 import android.support.annotation.Nullable;
 import android.util.AttributeSet;
-import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import com.tonyjstudio.pickerlikeios.wheel.SelectionThrottle;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Created by Xuan Thinh Phan on 7/29/2018.
  */
 public class Picker extends View {
     private float scaleX = 1.5f;
-    private static final int DEFAULT_TEXT_SIZE = (int) (Resources.getSystem().getDisplayMetrics().density * 15);
-    private static final float DEFAULT_LINE_SPACE = 2f;
-    private static final int DEFAULT_VISIBLE_ITEMS = 9;
 
     public enum ACTION {
         CLICK, FLING, DAGGER
     }
 
     private Context context;
-    private Handler handler;
-    private GestureDetector flingGestureDetector;
+    private WheelGestures gestures;
     private OnItemSelectedListener onItemSelectedListener;
+    private OnItemScrollListener onItemScrollListener;
+    private final SelectionThrottle scrollThrottle = new SelectionThrottle(0);
+    private final Runnable flushScrolledItem = new Runnable() {
+        @Override
+        public void run() {
+            dispatchItemScrolled(scrollThrottle.poll(System.nanoTime()));
+        }
+    };
+    // redraws and reports the column of the picker
+    private final WheelColumn.Host columnHost = new WheelColumn.Host() {
+        @Override
+        public void onColumnScrolled(WheelColumn column) {
+            invalidate();
+            onScrollPositionChanged();
+        }
+
+        @Override
+        public void onColumnSettled(WheelColumn column) {
+            onItemSelected();
+        }
+
+        @Override
+        public void onColumnAnimationTick(WheelColumn column, long frameTimeNanos) {
+            if (metricsListener != null) {
+                metricsListener.onAnimationTick(frameTimeNanos);
+            }
+        }
+
+        @Override
+        public void onColumnFlingFinished(WheelColumn column, long durationNanos) {
+            if (metricsListener != null) {
+                metricsListener.onFlingFinished(durationNanos);
+            }
+        }
+
+        @Override
+        public void onColumnItemsChanged(WheelColumn column, int start, int removedCount, int insertedCount) {
+            if (labelAtlas != null) {
+                labelAtlas.onItemsChanged(start, removedCount, insertedCount);
+            }
+            invalidate();
+        }
+    };
+
+    // drives the column from the touch events
+    private final WheelGestures.Callback gestureCallback = new WheelGestures.Callback() {
+        @Override
+        public void onDown(float x) {
+            cancelAnimation();
+        }
+
+        @Override
+        public void onDrag(int dy) {
+            column.drag(dy);
+        }
+
+        @Override
+        public void onFling(float velocityY) {
+            if (metricsListener != null) {
+                touchUpNanos = System.nanoTime();
+            }
+            scrollBy(velocityY);
+        }
 
-    private ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor();
-    private ScheduledFuture<?> mFuture;
+        @Override
+        public void onRelease(float y, boolean tap) {
+            if (metricsListener != null) {
+                touchUpNanos = System.nanoTime();
+            }
+            mOffset = layout.tapDistance(y, column.scrollState.getScrollY());
+            smoothScroll(tap ? ACTION.CLICK : ACTION.DAGGER);
+        }
+    };
 
-    private Paint paintOuterText;
-    private Paint paintCenterText;
-    private Paint paintIndicator;
+    // null unless instrumentation is enabled, no timing is taken without it
+    private PickerMetricsListener metricsListener;
+    private long touchUpNanos;
 
-    private List<IndexString> items;
+    // paints and label widths, shared with the other pickers of the same style
+    private PickerStyle style;
+    // a reference on the style is held while attached
+    private boolean styleAcquired;
+    private WheelRenderer renderer;
+    // pre-rendered labels, null unless the label cache is enabled
+    private LabelAtlas labelAtlas;
+    private int labelCacheMaxBytes = LabelAtlas.DEFAULT_BUDGET;
+
+    // items, scroll state and animation of the wheel
+    private WheelColumn column;
 
     private int textSize;
-    private int maxTextHeight;
 
     private int outerTextColor;
 
@@ -59,32 +125,15 @@ public class Picker extends View {
     private int dividerColor;
 
     private float lineSpacingMultiplier;
-    private boolean isLoop;
-
-    private int firstLineY;
-    private int secondLineY;
-
-    private int totalScrollY;
-    private int initPosition;
-    private int selectedItem;
-    private int preCurrentIndex;
-    private int change;
 
     private int itemsVisibleCount;
 
-    private HashMap<Integer,IndexString> drawingStrings;
+    // sizes and draw commands of the wheel, the view only renders them
+    private WheelLayout layout;
 
-    private int measuredHeight;
     private int measuredWidth;
 
-    private int halfCircumference;
-    private int radius;
-
     private int mOffset = 0;
-    private float previousY;
-    private long startTime = 0;
-
-    private Rect tempRect = new Rect();
 
     private int paddingLeft, paddingRight;
 
@@ -95,6 +144,9 @@ public class Picker extends View {
     public void setLineSpacingMultiplier(float lineSpacingMultiplier) {
         if (lineSpacingMultiplier > 1.0f) {
             this.lineSpacingMultiplier = lineSpacingMultiplier;
+            layout.setLineSpacingMultiplier(lineSpacingMultiplier);
+            remeasure();
+            invalidate();
         }
     }
 
@@ -104,7 +156,7 @@ public class Picker extends View {
      */
     public void setCenterTextColor (int centerTextColor) {
         this.centerTextColor = centerTextColor;
-        paintCenterText.setColor(centerTextColor);
+        restyle(style.key.withCenterColor(centerTextColor));
     }
 
     /**
@@ -113,7 +165,7 @@ public class Picker extends View {
      */
     public void setOuterTextColor(int outerTextColor) {
         this.outerTextColor = outerTextColor;
-        paintOuterText.setColor(outerTextColor);
+        restyle(style.key.withOuterColor(outerTextColor));
     }
 
     /**
@@ -122,7 +174,17 @@ public class Picker extends View {
      */
     public void setDividerColor(int dividerColor) {
         this.dividerColor = dividerColor;
-        paintIndicator.setColor(dividerColor);
+        restyle(style.key.withDividerColor(dividerColor));
+    }
+
+    /**
+     * fade the labels towards the top and bottom edges into a colour, usually the background colour
+     * The fade shaders are built once for the size of the wheel and kept while it does not change.
+     * @param fadeColor opaque colour, 0 for no fades
+     */
+    public void setFadeColor(int fadeColor) {
+        renderer.setFadeColor(fadeColor);
+        invalidate();
     }
 
     public Picker(Context context) {
@@ -145,34 +207,23 @@ public class Picker extends View {
      */
     private void initPicker(Context context, AttributeSet attributeSet) {
         this.context = context;
-        handler = new MessageHandler(this);
-        flingGestureDetector = new GestureDetector(context, new PickerGestureListener(this));
-        flingGestureDetector.setIsLongpressEnabled(false);
-
-        HashMap<String, Integer> hashMap = new HashMap<>();
-        hashMap.put("awv_textsize", 4);
+        gestures = new WheelGestures(context, gestureCallback);
 
-        TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.androidWheelView);
-        textSize = typedArray.getInteger(R.styleable.androidWheelView_awv_textsize, DEFAULT_TEXT_SIZE);
-        textSize = (int) (Resources.getSystem().getDisplayMetrics().density * textSize);
-        lineSpacingMultiplier = typedArray.getFloat(R.styleable.androidWheelView_awv_lineSpace, DEFAULT_LINE_SPACE);
-        centerTextColor = typedArray.getInteger(R.styleable.androidWheelView_awv_centerTextColor, 0xff313131);
-        outerTextColor = typedArray.getInteger(R.styleable.androidWheelView_awv_outerTextColor, 0xffafafaf);
-        dividerColor = typedArray.getInteger(R.styleable.androidWheelView_awv_dividerTextColor, 0xffc5c5c5);
-        itemsVisibleCount =
-                typedArray.getInteger(R.styleable.androidWheelView_awv_itemsVisibleCount, DEFAULT_VISIBLE_ITEMS);
-        if (itemsVisibleCount % 2 == 0) {
-            itemsVisibleCount = DEFAULT_VISIBLE_ITEMS;
-        }
-        isLoop = typedArray.getBoolean(R.styleable.androidWheelView_awv_isLoop, true);
-        typedArray.recycle();
+        PickerAttributes attributes = new PickerAttributes(context, attributeSet);
+        textSize = attributes.textSize;
+        lineSpacingMultiplier = attributes.lineSpacingMultiplier;
+        centerTextColor = attributes.centerTextColor;
+        outerTextColor = attributes.outerTextColor;
+        dividerColor = attributes.dividerColor;
+        itemsVisibleCount = attributes.visibleCount;
 
-//        drawingStrings = new String[itemsVisibleCount];
-        drawingStrings=new HashMap<>();
-        totalScrollY = 0;
-        initPosition = -1;
+        layout = new WheelLayout(itemsVisibleCount, lineSpacingMultiplier);
 
-        initPaints();
+        style = PickerStyles.get(attributes.styleKey(scaleX));
+        renderer = new WheelRenderer(style.outerPaint, style.centerPaint, style.dividerPaint);
+        column = new WheelColumn(columnHost, layout, style.outerPaint, style.centerPaint, scaleX);
+        column.setStyle(style);
+        column.setLoop(attributes.loop);
     }
 
     /**
@@ -186,40 +237,38 @@ public class Picker extends View {
         }
         if (visibleNumber != itemsVisibleCount) {
             itemsVisibleCount = visibleNumber;
-            drawingStrings=new HashMap<>();
+            layout.setVisibleCount(itemsVisibleCount);
+            remeasure();
+            invalidate();
         }
     }
 
-    private void initPaints() {
-        paintOuterText = new Paint();
-        paintOuterText.setColor(outerTextColor);
-        paintOuterText.setAntiAlias(true);
-        paintOuterText.setTypeface(Typeface.SANS_SERIF);
-        paintOuterText.setTextSize(textSize);
-
-        paintCenterText = new Paint();
-        paintCenterText.setColor(centerTextColor);
-        paintCenterText.setAntiAlias(true);
-        paintCenterText.setTextScaleX(scaleX);
-        paintCenterText.setTypeface(Typeface.SANS_SERIF);
-        paintCenterText.setTextSize(textSize);
-
-        paintIndicator = new Paint();
-        paintIndicator.setColor(dividerColor);
-        paintIndicator.setAntiAlias(true);
+    /*
+     * move to the shared style of the key, the labels are measured and rendered again with its paints
+     */
+    private void restyle(PickerStyle.Key key) {
+        applyStyle(PickerStyles.change(style, key, styleAcquired));
+    }
 
+    private void applyStyle(PickerStyle next) {
+        if (next == style) {
+            return;
+        }
+        style = next;
+        renderer.setPaints(style.outerPaint, style.centerPaint, style.dividerPaint);
+        column.setStyle(style);
+        clearLabelCache();
+        invalidate();
     }
 
     private void remeasure() {
-        if (items == null) {
+        if (column.getAdapter() == null) {
             return;
         }
 
         measuredWidth = getMeasuredWidth();
 
-        measuredHeight = getMeasuredHeight();
-
-        if (measuredWidth == 0 || measuredHeight == 0) {
+        if (measuredWidth == 0 || !layout.measure(getMeasuredHeight())) {
             return;
         }
 
@@ -228,61 +277,43 @@ public class Picker extends View {
 
         measuredWidth = measuredWidth - paddingRight;
 
-        paintCenterText.getTextBounds("\u661F\u671F", 0, 2, tempRect); // 星期
-        maxTextHeight = tempRect.height();
-        halfCircumference = (int) (measuredHeight * Math.PI / 2);
-
-        maxTextHeight = (int) (halfCircumference / (lineSpacingMultiplier * (itemsVisibleCount - 1)));
-
-        radius = measuredHeight / 2;
-        firstLineY = (int) ((measuredHeight - lineSpacingMultiplier * maxTextHeight) / 2.0F);
-        secondLineY = (int) ((measuredHeight + lineSpacingMultiplier * maxTextHeight) / 2.0F);
-        if (initPosition == -1) {
-            if (isLoop) {
-                initPosition = (items.size() + 1) / 2;
-            } else {
-                initPosition = 0;
-            }
+        if (labelAtlas != null) {
+            labelAtlas.configure(measuredWidth, (int) layout.getItemHeight(), layout.getVisibleCount());
         }
-
-        preCurrentIndex = initPosition;
+        column.initPositionIfUnset();
     }
 
     void smoothScroll(ACTION action) {
-        cancelFuture();
         if (action == ACTION.FLING || action == ACTION.DAGGER) {
-            float itemHeight = lineSpacingMultiplier * maxTextHeight;
-            mOffset = (int) ((totalScrollY % itemHeight + itemHeight) % itemHeight);
-            if ((float) mOffset > itemHeight / 2.0F) {
-                mOffset = (int) (itemHeight - (float) mOffset);
-            } else {
-                mOffset = -mOffset;
-            }
+            mOffset = layout.snapDistance(column.scrollState.getScrollY());
         }
-        mFuture =
-                mExecutor.scheduleWithFixedDelay(new SmoothScrollTimerTask(this, mOffset), 0, 10, TimeUnit.MILLISECONDS);
+        column.snap(mOffset);
     }
 
+    /**
+     * fling the wheel, it stops on the item where friction brings it
+     * @param velocityY finger velocity in pixels per second, positive downwards
+     */
     protected final void scrollBy(float velocityY) {
-        cancelFuture();
-        // change this number, can change fling speed
-        int velocityFling = 10;
-        mFuture = mExecutor.scheduleWithFixedDelay(new InertiaTimerTask(this, velocityY), 0, velocityFling,
-                TimeUnit.MILLISECONDS);
+        column.fling(velocityY);
     }
 
-    public void cancelFuture() {
-        if (mFuture != null && !mFuture.isCancelled()) {
-            mFuture.cancel(true);
-            mFuture = null;
-        }
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * stop the running fling or smooth scroll, if any
+     */
+    public void cancelAnimation() {
+        column.cancelAnimation();
     }
 
     /**
      * set not loop
      */
     public void setNotLoop() {
-        isLoop = false;
+        column.setLoop(false);
     }
 
     /**
@@ -292,47 +323,245 @@ public class Picker extends View {
     public final void setTextSize(float size) {
         if (size > 0.0F) {
             textSize = (int) (context.getResources().getDisplayMetrics().density * size);
-            paintOuterText.setTextSize(textSize);
-            paintCenterText.setTextSize(textSize);
+            restyle(style.key.withTextSize(textSize));
         }
     }
 
-    public final void setInitPosition(int initPosition) {
+    /**
+     * set typeface of the item text
+     * @param typeface
+     */
+    public final void setTypeface(Typeface typeface) {
+        restyle(style.key.withTypeface(typeface));
+    }
+
+    /**
+     * draw labels from bitmaps rendered once per item, for wheels with fixed content like months or hours
+     * @param enabled
+     */
+    public void setLabelCacheEnabled(boolean enabled) {
+        if (enabled == (labelAtlas != null)) {
+            return;
+        }
+        if (enabled) {
+            labelAtlas = new LabelAtlas(labelCacheMaxBytes);
+            remeasure();
+        } else {
+            labelAtlas.release();
+            labelAtlas = null;
+        }
+        invalidate();
+    }
+
+    /**
+     * memory budget of the label cache bitmap, the number of cached labels follows from it; labels are drawn
+     * without the cache when the budget does not fit the labels of one frame, see {@link #isLabelCacheUsable()}
+     * By default the budget holds the labels of two frames, whatever the size of the view.
+     * @param maxBytes
+     */
+    public void setLabelCacheMaxBytes(int maxBytes) {
+        if (maxBytes > 0 && maxBytes != labelCacheMaxBytes) {
+            labelCacheMaxBytes = maxBytes;
+            if (labelAtlas != null) {
+                setLabelCacheEnabled(false);
+                setLabelCacheEnabled(true);
+            }
+        }
+    }
+
+    /**
+     * whether labels are drawn from the label cache: false while it is disabled or the view is not measured,
+     * and when the budget set with {@link #setLabelCacheMaxBytes(int)} does not fit the labels of one frame
+     */
+    public boolean isLabelCacheUsable() {
+        return labelAtlas != null && labelAtlas.isUsable();
+    }
+
+    /**
+     * labels drawn from the label cache
+     */
+    public int getLabelCacheHitCount() {
+        return labelAtlas == null ? 0 : labelAtlas.getHitCount();
+    }
+
+    /**
+     * labels rendered into the label cache
+     */
+    public int getLabelCacheMissCount() {
+        return labelAtlas == null ? 0 : labelAtlas.getMissCount();
+    }
+
+    private void clearLabelCache() {
+        if (labelAtlas != null) {
+            labelAtlas.clear();
+        }
+    }
+
+    /**
+     * set the item shown before the wheel is scrolled, can be called from any thread
+     * @param initPosition
+     */
+    public final void setInitPosition(final int initPosition) {
+        if (!isMainThread()) {
+            post(new Runnable() {
+                @Override
+                public void run() {
+                    setInitPosition(initPosition);
+                }
+            });
+            return;
+        }
         if (initPosition < 0) {
-            this.initPosition = 0;
+            column.scrollState.setInitPosition(0);
         } else {
-            if (items != null && items.size() > initPosition) {
-                this.initPosition = initPosition;
+            if (column.getCount() > initPosition) {
+                column.scrollState.setInitPosition(initPosition);
             }
         }
     }
 
+    /**
+     * report frame, animation and selection timings, null to stop measuring
+     * @param listener
+     */
+    public void setMetricsListener(PickerMetricsListener listener) {
+        metricsListener = listener;
+        touchUpNanos = 0;
+    }
+
+    /**
+     * get the item the wheel settles on, called on the frame the snap or fling ends
+     * @param OnItemSelectedListener
+     */
     public final void setListener(OnItemSelectedListener OnItemSelectedListener) {
         onItemSelectedListener = OnItemSelectedListener;
     }
 
+    /**
+     * get the item in the middle while the wheel scrolls, at most once per interval
+     * @param listener null to stop the events
+     * @param intervalMillis shortest time between two events, 0 for every item passing the middle;
+     *                       the latest item is delivered when the interval ends or the wheel settles
+     */
+    public final void setOnItemScrollListener(OnItemScrollListener listener, long intervalMillis) {
+        onItemScrollListener = listener;
+        scrollThrottle.setInterval(Math.max(0, intervalMillis) * 1000000L);
+        scrollThrottle.reset();
+        removeCallbacks(flushScrolledItem);
+    }
+
+    /**
+     * set items as a list of labels, the list is wrapped and not copied
+     * @param items
+     */
     public final void setItems(List<String> items) {
+        setAdapter(new ListPickerAdapter(items));
+    }
 
-        this.items = convertData(items);
+    /**
+     * change the items to a new list of labels, keeping the selected item if it is still in the list
+     * Only the range that differs from the current labels is re-rendered, the first call wraps a copy
+     * of the list in a {@link MutableListPickerAdapter}, edit that adapter for single insertions and removals.
+     * @param items
+     */
+    public final void updateItems(List<String> items) {
+        PickerAdapter adapter = column.getAdapter();
+        if (adapter instanceof MutableListPickerAdapter) {
+            ((MutableListPickerAdapter) adapter).updateItems(items);
+        } else {
+            setAdapter(new MutableListPickerAdapter(items));
+        }
+    }
+
+    /**
+     * set the source of the items, labels are read only for the items being drawn
+     * @param adapter
+     */
+    public final void setAdapter(PickerAdapter adapter) {
+        // the column brings its initial position and scroll back onto the new items, no snap is pending
+        mOffset = 0;
+        column.setAdapter(adapter);
+        clearLabelCache();
+        scrollThrottle.reset();
         remeasure();
         invalidate();
     }
 
-    public List<IndexString> convertData(List<String> items){
-        List<IndexString> data=new ArrayList<>();
-        for (int i = 0; i < items.size(); i++) {
-            data.add(new IndexString(i,items.get(i)));
-        }
-        return data;
+    /**
+     * show the numbers from min to max by step
+     * @param min
+     * @param max
+     * @param step
+     */
+    public final void setRange(int min, int max, int step) {
+        setAdapter(new NumberRangeAdapter(min, max, step));
+    }
+
+    public final PickerAdapter getAdapter() {
+        return column.getAdapter();
     }
 
     public final int getSelectedItem() {
-        return selectedItem;
+        return column.getSelectedItem();
+    }
+
+    /**
+     * item in the middle of the wheel, also before the first frame is drawn
+     * @return the position, -1 without items
+     */
+    int getCenterItem() {
+        if (column.getCount() == 0) {
+            return -1;
+        }
+        column.initPositionIfUnset();
+        return column.selectedIndex();
+    }
+
+    /**
+     * text style the wheel draws with, shared with the other pickers of the same look
+     */
+    PickerStyle getStyle() {
+        return style;
     }
 
     protected final void onItemSelected() {
+        if (column.getCount() == 0) {
+            return;
+        }
+        int selectedItem = column.getSelectedItem();
+        if (metricsListener != null && touchUpNanos != 0) {
+            metricsListener.onItemSelected(System.nanoTime() - touchUpNanos);
+            touchUpNanos = 0;
+        }
+        if (onItemScrollListener != null) {
+            removeCallbacks(flushScrolledItem);
+            dispatchItemScrolled(scrollThrottle.settle(selectedItem, System.nanoTime()));
+        }
         if (onItemSelectedListener != null) {
-            postDelayed(new OnItemSelectedRunnable(this), 200L);
+            onItemSelectedListener.onItemSelected(selectedItem);
+        }
+    }
+
+    /*
+     * report the item in the middle to the scroll listener, coalesced by the throttle
+     */
+    private void onScrollPositionChanged() {
+        if (onItemScrollListener == null || column.getCount() == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        int index = column.selectedIndex();
+        dispatchItemScrolled(scrollThrottle.offer(index, now));
+        long delay = scrollThrottle.pendingDelay(now);
+        removeCallbacks(flushScrolledItem);
+        if (delay >= 0) {
+            postDelayed(flushScrolledItem, delay / 1000000L + 1);
+        }
+    }
+
+    private void dispatchItemScrolled(int index) {
+        if (index != SelectionThrottle.NONE && onItemScrollListener != null) {
+            onItemScrollListener.onItemScrolled(index);
         }
     }
 
@@ -343,134 +572,85 @@ public class Picker extends View {
      */
     public void setScaleX(float scaleX) {
         this.scaleX = scaleX;
+        // the View constructor calls this before the paints exist when android:scaleX is set
+        if (column != null) {
+            column.setScaleX(scaleX);
+            clearLabelCache();
+        }
     }
 
     /**
-     * set current item position
+     * set current item position, can be called from any thread
      * @param position
      */
-    public void setCurrentPosition(int position) {
-        if (items == null || items.isEmpty()) {
+    public void setCurrentPosition(final int position) {
+        if (!isMainThread()) {
+            post(new Runnable() {
+                @Override
+                public void run() {
+                    setCurrentPosition(position);
+                }
+            });
+            return;
+        }
+        int size = column.getCount();
+        if (size == 0) {
             return;
         }
-        int size = items.size();
-        if (position >= 0 && position < size && position != selectedItem) {
-            initPosition = position;
-            totalScrollY = 0;
+        if (position >= 0 && position < size && position != column.getSelectedItem()) {
+            column.setCurrentPosition(position);
             mOffset = 0;
             invalidate();
         }
     }
 
+    /**
+     * scroll to the first item whose label starts with the typed text, ignoring case
+     * Labels are indexed in the background when the items are set or changed, a number range is searched
+     * without an index and paged adapters are not indexed.
+     * The scroll takes the same short time for any distance, the listener then gets the item.
+     * @param prefix typed text, or a single key
+     * @return position of the item, -1 when no label matches or the index is not built yet
+     */
+    public int jumpToPrefix(CharSequence prefix) {
+        int position = column.findPrefix(prefix);
+        if (position != -1) {
+            column.jumpTo(position);
+        }
+        return position;
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
-        if (items == null) {
+        if (column.getCount() == 0 || !layout.isMeasured()) {
             return;
         }
+        PickerMetricsListener metrics = metricsListener;
+        long drawStartNanos = 0;
+        int cacheHits = 0;
+        int cacheMisses = 0;
+        if (metrics != null) {
+            drawStartNanos = System.nanoTime();
+            cacheHits = cacheHitCount();
+            cacheMisses = cacheMissCount();
+        }
 
-        change = (int) (totalScrollY / (lineSpacingMultiplier * maxTextHeight));
-        preCurrentIndex = initPosition + change % items.size();
+        renderer.drawColumn(canvas, layout, column, paddingLeft, measuredWidth, labelAtlas);
+        // the chrome goes over the labels so they fade out under it
+        renderer.drawChrome(canvas, layout, paddingLeft, measuredWidth);
 
-        if (!isLoop) {
-            if (preCurrentIndex < 0) {
-                preCurrentIndex = 0;
-            }
-            if (preCurrentIndex > items.size() - 1) {
-                preCurrentIndex = items.size() - 1;
-            }
-        } else {
-            if (preCurrentIndex < 0) {
-                preCurrentIndex = items.size() + preCurrentIndex;
-            }
-            if (preCurrentIndex > items.size() - 1) {
-                preCurrentIndex = preCurrentIndex - items.size();
-            }
+        if (metrics != null) {
+            metrics.onFrameDrawn(System.nanoTime() - drawStartNanos,
+                    cacheHitCount() - cacheHits, cacheMissCount() - cacheMisses);
         }
+    }
 
-        int j2 = (int) (totalScrollY % (lineSpacingMultiplier * maxTextHeight));
-        // put value to drawingString
-        int k1 = 0;
-        while (k1 < itemsVisibleCount) {
-            int l1 = preCurrentIndex - (itemsVisibleCount / 2 - k1);
-            if (isLoop) {
-                while (l1 < 0) {
-                    l1 = l1 + items.size();
-                }
-                while (l1 > items.size() - 1) {
-                    l1 = l1 - items.size();
-                }
-                drawingStrings.put(k1, items.get(l1));
-            } else if (l1 < 0) {
-                drawingStrings.put(k1,new IndexString());
-            } else if (l1 > items.size() - 1) {
-                drawingStrings.put(k1,new IndexString());
-            } else {
-                drawingStrings.put(k1,items.get(l1));
-            }
-            k1++;
-        }
-        canvas.drawLine(paddingLeft, firstLineY, measuredWidth, firstLineY, paintIndicator);
-        canvas.drawLine(paddingLeft, secondLineY, measuredWidth, secondLineY, paintIndicator);
-
-        int i = 0;
-        while (i < itemsVisibleCount) {
-            canvas.save();
-            float itemHeight = maxTextHeight * lineSpacingMultiplier;
-            double radian = ((itemHeight * i - j2) * Math.PI) / halfCircumference;
-            if (radian >= Math.PI || radian <= 0) {
-                canvas.restore();
-            } else {
-                int translateY = (int) (radius - Math.cos(radian) * radius - (Math.sin(radian) * maxTextHeight) / 2D);
-                canvas.translate(0.0F, translateY);
-                canvas.scale(1.0F, (float) Math.sin(radian));
-                if (translateY <= firstLineY && maxTextHeight + translateY >= firstLineY) {
-                    // first divider
-                    canvas.save();
-                    canvas.clipRect(0, 0, measuredWidth, firstLineY - translateY);
-                    canvas.drawText(drawingStrings.get(i).mString, getTextX(drawingStrings.get(i).mString, paintOuterText, tempRect),
-                            maxTextHeight, paintOuterText);
-                    canvas.restore();
-                    canvas.save();
-                    canvas.clipRect(0, firstLineY - translateY, measuredWidth, (int) (itemHeight));
-                    canvas.drawText(drawingStrings.get(i).mString, getTextX(drawingStrings.get(i).mString, paintCenterText, tempRect),
-                            maxTextHeight, paintCenterText);
-                    canvas.restore();
-                } else if (translateY <= secondLineY && maxTextHeight + translateY >= secondLineY) {
-                    // second divider
-                    canvas.save();
-                    canvas.clipRect(0, 0, measuredWidth, secondLineY - translateY);
-                    canvas.drawText(drawingStrings.get(i).mString, getTextX(drawingStrings.get(i).mString, paintCenterText, tempRect),
-                            maxTextHeight, paintCenterText);
-                    canvas.restore();
-                    canvas.save();
-                    canvas.clipRect(0, secondLineY - translateY, measuredWidth, (int) (itemHeight));
-                    canvas.drawText(drawingStrings.get(i).mString, getTextX(drawingStrings.get(i).mString, paintOuterText, tempRect),
-                            maxTextHeight, paintOuterText);
-                    canvas.restore();
-                } else if (translateY >= firstLineY && maxTextHeight + translateY <= secondLineY) {
-                    // center item
-                    canvas.clipRect(0, 0, measuredWidth, (int) (itemHeight));
-                    canvas.drawText(drawingStrings.get(i).mString, getTextX(drawingStrings.get(i).mString, paintCenterText, tempRect),
-                            maxTextHeight, paintCenterText);
-                    selectedItem = items.indexOf(drawingStrings.get(i));
-                } else {
-                    // other item
-                    canvas.clipRect(0, 0, measuredWidth, (int) (itemHeight));
-                    canvas.drawText(drawingStrings.get(i).mString, getTextX(drawingStrings.get(i).mString, paintOuterText, tempRect),
-                            maxTextHeight, paintOuterText);
-                }
-                canvas.restore();
-            }
-            i++;
-        }
+    private int cacheHitCount() {
+        return column.getCacheHitCount() + getLabelCacheHitCount();
     }
 
-    // text start drawing position
-    private int getTextX(String a, Paint paint, Rect rect) {
-        paint.getTextBounds(a, 0, a.length(), rect);
-        int textWidth = rect.width();
-        textWidth *= scaleX;
-        return (measuredWidth - paddingLeft - textWidth) / 2 + paddingLeft;
+    private int cacheMissCount() {
+        return column.getCacheMissCount() + getLabelCacheMissCount();
     }
 
     @Override
@@ -480,250 +660,79 @@ public class Picker extends View {
     }
 
     @Override
-    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-        super.onLayout(changed, left, top, right, bottom);
-    }
-
-    @Override
-    public boolean onTouchEvent(MotionEvent event) {
-        boolean eventConsumed = flingGestureDetector.onTouchEvent(event);
-        float itemHeight = lineSpacingMultiplier * maxTextHeight;
-
-        switch (event.getAction()) {
-            case MotionEvent.ACTION_DOWN:
-                startTime = System.currentTimeMillis();
-                cancelFuture();
-                previousY = event.getRawY();
-                if (getParent() != null) {
-                    getParent().requestDisallowInterceptTouchEvent(true);
-                }
-                break;
-
-            case MotionEvent.ACTION_MOVE:
-                float dy = previousY - event.getRawY();
-                previousY = event.getRawY();
-
-                totalScrollY = (int) (totalScrollY + dy);
-
-                if (!isLoop) {
-                    float top = -initPosition * itemHeight;
-                    float bottom = (items.size() - 1 - initPosition) * itemHeight;
-
-                    if (totalScrollY < top) {
-                        totalScrollY = (int) top;
-                    } else if (totalScrollY > bottom) {
-                        totalScrollY = (int) bottom;
-                    }
-                }
-                break;
-
-            case MotionEvent.ACTION_UP:
-            case MotionEvent.ACTION_CANCEL:
-            default:
-                if (!eventConsumed) {
-                    float y = event.getY();
-                    double l = Math.acos((radius - y) / radius) * radius;
-                    int circlePosition = (int) ((l + itemHeight / 2) / itemHeight);
-
-                    float extraOffset = (totalScrollY % itemHeight + itemHeight) % itemHeight;
-                    mOffset = (int) ((circlePosition - itemsVisibleCount / 2) * itemHeight - extraOffset);
-
-                    if ((System.currentTimeMillis() - startTime) > 120) {
-                        smoothScroll(ACTION.DAGGER);
-                    } else {
-                        smoothScroll(ACTION.CLICK);
-                    }
-                }
-                if (getParent() != null) {
-                    getParent().requestDisallowInterceptTouchEvent(false);
-                }
-                break;
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // an equal style may have been registered by another picker meanwhile
+        applyStyle(PickerStyles.acquire(style));
+        styleAcquired = true;
+        // the label cache bitmap was recycled on detach, the scroll position was kept
+        if (labelAtlas != null) {
+            remeasure();
         }
-
-        invalidate();
-        return true;
     }
 
-    /*
-     * Item on picker model
-     */
-    private class IndexString {
-        private String mString;
-        private int mIndex;
-        IndexString () {
-            this.mString = "";
-        }
-        IndexString(int index, String string) {
-            this.mIndex = index;
-            this.mString = string;
-        }
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // nothing queued on the frame scheduler or the view's handler may keep the view alive,
+        // and no selection is reported while the host tears the view down
+        column.finishAnimationQuietly();
+        removeCallbacks(flushScrolledItem);
+        scrollThrottle.reset();
+        column.releaseCaches();
+        if (labelAtlas != null) {
+            labelAtlas.release();
+        }
+        PickerStyles.release(style);
+        styleAcquired = false;
+        gestures.release();
     }
 
-    /*
-     * Runnable on event item click listener
-     */
-    private class OnItemSelectedRunnable implements Runnable{
-        private final Picker mPicker;
-
-        OnItemSelectedRunnable(Picker picker) {
-            mPicker = picker;
-        }
-
-        @Override
-        public final void run() {
-            mPicker.onItemSelectedListener.onItemSelected(mPicker.getSelectedItem());
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // also called while the constructor of View runs, before the column exists
+        if (visibility != VISIBLE && column != null) {
+            column.finishAnimation();
         }
     }
 
-    /*
-     * Class use for create a inertia on picker
-     */
-    private class InertiaTimerTask implements Runnable {
-        private float a;
-        private final float velocityY;
-        private final Picker mPicker;
-
-        InertiaTimerTask(Picker picker, float velocityY) {
-            super();
-            mPicker = picker;
-            this.velocityY = velocityY;
-            a = Integer.MAX_VALUE;
-        }
-
-        @Override
-        public final void run() {
-            if (a == Integer.MAX_VALUE) {
-                if (Math.abs(velocityY) > 2000F) {
-                    if (velocityY > 0.0F) {
-                        a = 2000F;
-                    } else {
-                        a = -2000F;
-                    }
-                } else {
-                    a = velocityY;
-                }
-            }
-            if (Math.abs(a) >= 0.0F && Math.abs(a) <= 20F) {
-                mPicker.cancelFuture();
-                mPicker.handler.sendEmptyMessage(MessageHandler.WHAT_SMOOTH_SCROLL);
-                return;
-            }
-            int i = (int) ((a * 10F) / 1000F);
-            Picker picker = mPicker;
-            picker.totalScrollY = picker.totalScrollY - i;
-            if (!mPicker.isLoop) {
-                float itemHeight = mPicker.lineSpacingMultiplier * mPicker.maxTextHeight;
-                if (mPicker.totalScrollY <= (int) ((float) (-mPicker.initPosition) * itemHeight)) {
-                    a = 40F;
-                    mPicker.totalScrollY = (int) ((float) (-mPicker.initPosition) * itemHeight);
-                } else if (mPicker.totalScrollY >= (int) ((float) (mPicker.items.size() - 1 - mPicker.initPosition) * itemHeight)) {
-                    mPicker.totalScrollY = (int) ((float) (mPicker.items.size() - 1 - mPicker.initPosition) * itemHeight);
-                    a = -40F;
-                }
-            }
-            if (a < 0.0F) {
-                a = a + 20F;
-            } else {
-                a = a - 20F;
-            }
-            mPicker.handler.sendEmptyMessage(MessageHandler.WHAT_INVALIDATE_LOOP_VIEW);
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility != VISIBLE) {
+            column.finishAnimation();
         }
     }
 
-    /*
-     * Class use for smooth scroll on picker
-     */
-    public class SmoothScrollTimerTask implements Runnable {
-        private int realTotalOffset;
-        private int realOffset;
-        private int offset;
-        private final Picker mPicker;
-
-        SmoothScrollTimerTask(Picker picker, int offset) {
-            this.mPicker = picker;
-            this.offset = offset;
-            realTotalOffset = Integer.MAX_VALUE;
-            realOffset = 0;
-        }
-
-        @Override
-        public void run() {
-            if (realTotalOffset == Integer.MAX_VALUE) {
-                realTotalOffset = offset;
-            }
-            realOffset = (int) ((float) realTotalOffset * 0.1F);
-
-            if (realOffset == 0) {
-                if (realTotalOffset < 0) {
-                    realOffset = -1;
-                } else {
-                    realOffset = 1;
-                }
-            }
-            if (Math.abs(realTotalOffset) <= 0) {
-                mPicker.cancelFuture();
-                mPicker.handler.sendEmptyMessage(MessageHandler.WHAT_ITEM_SELECTED);
-            } else {
-                mPicker.totalScrollY = mPicker.totalScrollY + realOffset;
-                mPicker.handler.sendEmptyMessage(MessageHandler.WHAT_INVALIDATE_LOOP_VIEW);
-                realTotalOffset = realTotalOffset - realOffset;
-            }
-        }
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
     }
 
-    /*
-     * Class use for handle gestures on picker
-     */
-    private final class PickerGestureListener extends GestureDetector.SimpleOnGestureListener{
-        private final Picker mPicker;
-        PickerGestureListener(Picker picker) {
-            mPicker = picker;
-        }
-
-        @Override
-        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            mPicker.scrollBy(velocityY);
-            return true;
-        }
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return gestures.onTouchEvent(this, event);
     }
 
-    /*
-     * Handler to handle scroll-state of picker
+    /**
+     * Callback interface use to get event on click item
      */
-    private static class MessageHandler extends Handler {
-        public static final int WHAT_INVALIDATE_LOOP_VIEW = 1000;
-        public static final int WHAT_SMOOTH_SCROLL = 2000;
-        public static final int WHAT_ITEM_SELECTED = 3000;
-
-        private final Picker mPicker;
-
-        MessageHandler(Picker picker) {
-            mPicker = picker;
-        }
-
-        @Override
-        public void handleMessage(Message msg) {
-            switch (msg.what) {
-                case WHAT_INVALIDATE_LOOP_VIEW:
-                    mPicker.invalidate();
-                    break;
-                case WHAT_SMOOTH_SCROLL:
-                    mPicker.smoothScroll(Picker.ACTION.FLING);
-                    break;
-                case WHAT_ITEM_SELECTED:
-                    mPicker.onItemSelected();
-                    break;
-                default: break;
-            }
-        }
+    public interface OnItemSelectedListener {
+        /**
+         * @param index item the wheel came to rest on
+         */
+        void onItemSelected(int index);
     }
 
-
-    /*
-     * Callback interface use to get event on click item
+    /**
+     * Callback interface use to follow the item in the middle while scrolling
      */
-    private interface OnItemSelectedListener {
-        void onItemSelected(int index);
+    public interface OnItemScrollListener {
+        /**
+         * @param index item closest to the middle of the wheel
+         */
+        void onItemScrolled(int index);
     }
 
 }
@@ -0,0 +1,20 @@
+package com.tonyjstudio.pickerlikeios;
+
+/**
+ * Source of the items shown by a {@link Picker}.
+ * The picker only asks for the items it is about to draw, so an adapter can produce labels on demand
+ * instead of holding the whole data set in memory. Methods are called on the UI thread.
+ */
+public interface PickerAdapter {
+
+    /**
+     * number of items of the wheel
+     */
+    int getCount();
+
+    /**
+     * label of an item
+     * @param position index of the item, from 0 to {@link #getCount()} - 1
+     */
+    String getItemText(int position);
+}
@@ -0,0 +1,50 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+
+/**
+ * Attributes of the wheel views, read from the androidWheelView styleable with the defaults of a {@link Picker}.
+ */
+final class PickerAttributes {
+
+    private static final int DEFAULT_TEXT_SIZE = (int) (Resources.getSystem().getDisplayMetrics().density * 15);
+    private static final float DEFAULT_LINE_SPACE = 2f;
+    private static final int DEFAULT_VISIBLE_ITEMS = 9;
+
+    // in pixels
+    final int textSize;
+    final float lineSpacingMultiplier;
+    final int centerTextColor;
+    final int outerTextColor;
+    final int dividerColor;
+    // odd, an even count falls back to the default
+    final int visibleCount;
+    final boolean loop;
+
+    PickerAttributes(Context context, AttributeSet attributeSet) {
+        TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.androidWheelView);
+        int size = typedArray.getInteger(R.styleable.androidWheelView_awv_textsize, DEFAULT_TEXT_SIZE);
+        textSize = (int) (Resources.getSystem().getDisplayMetrics().density * size);
+        lineSpacingMultiplier = typedArray.getFloat(R.styleable.androidWheelView_awv_lineSpace, DEFAULT_LINE_SPACE);
+        centerTextColor = typedArray.getInteger(R.styleable.androidWheelView_awv_centerTextColor, 0xff313131);
+        outerTextColor = typedArray.getInteger(R.styleable.androidWheelView_awv_outerTextColor, 0xffafafaf);
+        dividerColor = typedArray.getInteger(R.styleable.androidWheelView_awv_dividerTextColor, 0xffc5c5c5);
+        int count = typedArray.getInteger(R.styleable.androidWheelView_awv_itemsVisibleCount, DEFAULT_VISIBLE_ITEMS);
+        visibleCount = count % 2 == 0 ? DEFAULT_VISIBLE_ITEMS : count;
+        loop = typedArray.getBoolean(R.styleable.androidWheelView_awv_isLoop, true);
+        typedArray.recycle();
+    }
+
+    /**
+     * key of the text style the attributes describe
+     * @param textScaleX horizontal scale of the center labels
+     */
+    PickerStyle.Key styleKey(float textScaleX) {
+        return new PickerStyle.Key(textSize, Typeface.SANS_SERIF, textScaleX, outerTextColor, centerTextColor,
+                dividerColor);
+    }
+}
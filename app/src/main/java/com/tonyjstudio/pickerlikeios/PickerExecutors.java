@@ -0,0 +1,67 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background executor shared by all pickers for work that must stay off the UI thread.
+ * Its single thread is started on demand and exits after it has been idle for a while.
+ * Results go back to the UI thread through {@link #mainThread()}.
+ */
+final class PickerExecutors {
+
+    private static final long KEEP_ALIVE_SECONDS = 5;
+
+    private static ThreadPoolExecutor sBackground;
+    private static Executor sMainThread;
+
+    private PickerExecutors() {
+    }
+
+    static synchronized Executor background() {
+        if (sBackground == null) {
+            sBackground = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new BackgroundThreadFactory());
+            sBackground.allowCoreThreadTimeOut(true);
+        }
+        return sBackground;
+    }
+
+    static synchronized Executor mainThread() {
+        if (sMainThread == null) {
+            final Handler handler = new Handler(Looper.getMainLooper());
+            sMainThread = new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    handler.post(command);
+                }
+            };
+        }
+        return sMainThread;
+    }
+
+    /*
+     * Daemon threads with background priority
+     */
+    private static final class BackgroundThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "picker-background");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
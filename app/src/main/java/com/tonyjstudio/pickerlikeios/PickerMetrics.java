@@ -0,0 +1,82 @@
+package com.tonyjstudio.pickerlikeios;
+
+import com.tonyjstudio.pickerlikeios.wheel.DurationHistogram;
+
+/**
+ * Metrics listener that aggregates the timings of a picker into histograms and counters.
+ * Recording allocates nothing, read the percentiles from the UI thread, for example when a screen closes.
+ */
+public class PickerMetrics implements PickerMetricsListener {
+
+    private final DurationHistogram drawTimes = new DurationHistogram();
+    private final DurationHistogram flingDurations = new DurationHistogram();
+    private final DurationHistogram selectionLatencies = new DurationHistogram();
+    private long animationTicks;
+    private long cacheHits;
+    private long cacheMisses;
+
+    @Override
+    public void onFrameDrawn(long drawNanos, int cacheHits, int cacheMisses) {
+        drawTimes.record(drawNanos);
+        this.cacheHits += cacheHits;
+        this.cacheMisses += cacheMisses;
+    }
+
+    @Override
+    public void onAnimationTick(long frameTimeNanos) {
+        animationTicks++;
+    }
+
+    @Override
+    public void onFlingFinished(long durationNanos) {
+        flingDurations.record(durationNanos);
+    }
+
+    @Override
+    public void onItemSelected(long sinceTouchUpNanos) {
+        selectionLatencies.record(sinceTouchUpNanos);
+    }
+
+    /**
+     * onDraw durations, one value per frame drawn
+     */
+    public DurationHistogram getDrawTimes() {
+        return drawTimes;
+    }
+
+    public DurationHistogram getFlingDurations() {
+        return flingDurations;
+    }
+
+    /**
+     * time from touch-up to the selected item
+     */
+    public DurationHistogram getSelectionLatencies() {
+        return selectionLatencies;
+    }
+
+    public long getFramesDrawn() {
+        return drawTimes.getCount();
+    }
+
+    public long getAnimationTicks() {
+        return animationTicks;
+    }
+
+    /**
+     * share of cache lookups that hit, from 0 to 1
+     */
+    public float getCacheHitRate() {
+        long lookups = cacheHits + cacheMisses;
+        return lookups == 0 ? 0f : (float) cacheHits / lookups;
+    }
+
+    public void reset() {
+        drawTimes.reset();
+        flingDurations.reset();
+        selectionLatencies.reset();
+        animationTicks = 0;
+        cacheHits = 0;
+        cacheMisses = 0;
+    }
+}
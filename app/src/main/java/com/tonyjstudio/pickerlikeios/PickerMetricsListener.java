@@ -0,0 +1,36 @@
+package com.tonyjstudio.pickerlikeios;
+
+/**
+ * Receives timings of a {@link Picker}, set with {@link Picker#setMetricsListener(PickerMetricsListener)}.
+ * Methods are called on the UI thread from inside drawing and animation, implementations should only
+ * count or record values, see {@link PickerMetrics} for one that builds histograms.
+ * Nothing is measured while no listener is set.
+ */
+public interface PickerMetricsListener {
+
+    /**
+     * a frame was drawn
+     * @param drawNanos time spent in onDraw
+     * @param cacheHits labels and widths found in the caches during the frame
+     * @param cacheMisses labels and widths measured or rendered during the frame
+     */
+    void onFrameDrawn(long drawNanos, int cacheHits, int cacheMisses);
+
+    /**
+     * a fling or smooth scroll stepped on a vsync, compare with the frames drawn to see dropped frames
+     * @param frameTimeNanos vsync time of the frame
+     */
+    void onAnimationTick(long frameTimeNanos);
+
+    /**
+     * a fling came to rest on an item
+     * @param durationNanos time from touch-up to the last step
+     */
+    void onFlingFinished(long durationNanos);
+
+    /**
+     * the wheel settled on an item after a touch
+     * @param sinceTouchUpNanos time from touch-up to the selection
+     */
+    void onItemSelected(long sinceTouchUpNanos);
+}
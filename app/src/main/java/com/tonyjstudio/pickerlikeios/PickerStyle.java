@@ -0,0 +1,125 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.LruCache;
+
+/**
+ * Paints and measured label widths of one text style, shared by every picker drawing with that style.
+ * Styles are found in {@link PickerStyles}, their paints are never changed once built: a picker changing its
+ * colours, text size or typeface moves to the style of the new {@link Key} instead. A {@link SurfacePicker} builds
+ * its styles without registering them, the registry is used on the UI thread and its paints on the render thread.
+ */
+final class PickerStyle {
+
+    final Key key;
+    final Paint outerPaint;
+    final Paint centerPaint;
+    final Paint dividerPaint;
+    // widths of labels before a picker's horizontal scale, see TextWidthCache
+    final LruCache<String, Integer> outerWidths = new LruCache<>(TextWidthCache.MAX_ENTRIES);
+    final LruCache<String, Integer> centerWidths = new LruCache<>(TextWidthCache.MAX_ENTRIES);
+    // attached pickers holding the style, it leaves the registry when the last one lets go
+    int refCount;
+
+    PickerStyle(Key key) {
+        this.key = key;
+        outerPaint = new Paint();
+        outerPaint.setColor(key.outerColor);
+        outerPaint.setAntiAlias(true);
+        outerPaint.setTypeface(key.typeface);
+        outerPaint.setTextSize(key.textSize);
+
+        centerPaint = new Paint();
+        centerPaint.setColor(key.centerColor);
+        centerPaint.setAntiAlias(true);
+        centerPaint.setTextScaleX(key.textScaleX);
+        centerPaint.setTypeface(key.typeface);
+        centerPaint.setTextSize(key.textSize);
+
+        dividerPaint = new Paint();
+        dividerPaint.setColor(key.dividerColor);
+        dividerPaint.setAntiAlias(true);
+    }
+
+    /**
+     * drop the measured label widths, they are measured again when drawn
+     */
+    void releaseWidths() {
+        outerWidths.evictAll();
+        centerWidths.evictAll();
+    }
+
+    /*
+     * Everything the paints are built from, styles with equal keys are the same style
+     */
+    static final class Key {
+        final int textSize;
+        final Typeface typeface;
+        // horizontal scale of the center labels
+        final float textScaleX;
+        final int outerColor;
+        final int centerColor;
+        final int dividerColor;
+
+        /**
+         * @param textSize in pixels
+         */
+        Key(int textSize, Typeface typeface, float textScaleX, int outerColor, int centerColor, int dividerColor) {
+            this.textSize = textSize;
+            this.typeface = typeface;
+            this.textScaleX = textScaleX;
+            this.outerColor = outerColor;
+            this.centerColor = centerColor;
+            this.dividerColor = dividerColor;
+        }
+
+        Key withTextSize(int textSize) {
+            return new Key(textSize, typeface, textScaleX, outerColor, centerColor, dividerColor);
+        }
+
+        Key withTypeface(Typeface typeface) {
+            return new Key(textSize, typeface, textScaleX, outerColor, centerColor, dividerColor);
+        }
+
+        Key withOuterColor(int outerColor) {
+            return new Key(textSize, typeface, textScaleX, outerColor, centerColor, dividerColor);
+        }
+
+        Key withCenterColor(int centerColor) {
+            return new Key(textSize, typeface, textScaleX, outerColor, centerColor, dividerColor);
+        }
+
+        Key withDividerColor(int dividerColor) {
+            return new Key(textSize, typeface, textScaleX, outerColor, centerColor, dividerColor);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return textSize == other.textSize
+                    && Float.compare(textScaleX, other.textScaleX) == 0
+                    && outerColor == other.outerColor
+                    && centerColor == other.centerColor
+                    && dividerColor == other.dividerColor
+                    && (typeface == null ? other.typeface == null : typeface.equals(other.typeface));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = textSize;
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + outerColor;
+            result = 31 * result + centerColor;
+            result = 31 * result + dividerColor;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tonyjstudio.pickerlikeios;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide registry of the {@link PickerStyle}s of attached pickers, counted by reference.
+ * Pickers built with the same style share its paints and measured widths instead of building their own;
+ * a picker holds a reference while attached, a style no attached picker holds is dropped from the registry.
+ * Used on the UI thread only.
+ */
+final class PickerStyles {
+
+    private static final Map<PickerStyle.Key, PickerStyle> sStyles = new HashMap<>();
+
+    private PickerStyles() {
+    }
+
+    /**
+     * the registered style of a key, or a new one that is registered when a picker acquires it
+     */
+    static PickerStyle get(PickerStyle.Key key) {
+        PickerStyle style = sStyles.get(key);
+        return style != null ? style : new PickerStyle(key);
+    }
+
+    /**
+     * take a reference on the registered style with the key of the given one, registering it if there is none
+     * @return the registered style, the given one or an equal one registered earlier
+     */
+    static PickerStyle acquire(PickerStyle style) {
+        PickerStyle registered = sStyles.get(style.key);
+        if (registered == null) {
+            registered = style;
+            sStyles.put(style.key, style);
+        }
+        registered.refCount++;
+        return registered;
+    }
+
+    /**
+     * drop a reference taken with {@link #acquire}, the style stays usable by the caller; the last reference
+     * also drops the label widths of the style, they are measured again when drawn
+     */
+    static void release(PickerStyle style) {
+        if (sStyles.get(style.key) != style) {
+            return;
+        }
+        if (--style.refCount == 0) {
+            sStyles.remove(style.key);
+            style.releaseWidths();
+        }
+    }
+
+    /**
+     * move from a style to the one of another key, keeping the reference of an attached picker
+     * @param acquired whether the picker holds a reference on the current style
+     */
+    static PickerStyle change(PickerStyle current, PickerStyle.Key key, boolean acquired) {
+        if (key.equals(current.key)) {
+            return current;
+        }
+        if (!acquired) {
+            return get(key);
+        }
+        PickerStyle next = acquire(get(key));
+        release(current);
+        return next;
+    }
+
+    /**
+     * styles held by attached pickers
+     */
+    static int size() {
+        return sStyles.size();
+    }
+}
@@ -0,0 +1,716 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Process;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.Surface;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picker drawing its wheel on a render thread of its own, into the surface of a {@link SurfaceView}.
+ * The wheel looks and scrolls like a {@link Picker} and shares its layout and renderer, but flings and snaps are
+ * stepped and drawn on the render thread, so they keep their frame rate while the UI thread is busy.
+ * Touch events are taken on the UI thread and forwarded, selections are delivered back on the UI thread.
+ * The surface is composited under the window, draw the background with {@link #setWheelBackgroundColor(int)}.
+ * Adapters are read on the render thread, adapters whose items change in place are not supported.
+ */
+public class SurfacePicker extends SurfaceView implements SurfaceHolder.Callback {
+    private static final float SCALE_X = 1.5f;
+    // longest wait of the UI thread for the render thread to let go of the surface
+    private static final long RELEASE_TIMEOUT_MILLIS = 500;
+
+    // touch input forwarded to the render thread
+    private static final int MSG_DOWN = 1;
+    private static final int MSG_DRAG = 2;
+    private static final int MSG_FLING = 3;
+    private static final int MSG_RELEASE = 4;
+    // selection delivered to the UI thread
+    private static final int MSG_SELECTED = 5;
+
+    private WheelGestures gestures;
+    private Picker.OnItemSelectedListener onItemSelectedListener;
+    // item the wheel last settled on, written on the render thread
+    private volatile int selectedItem;
+
+    // owned by the render thread once it started, see runOnRenderThread
+    private RenderLoop renderLoop;
+    private HandlerThread renderThread;
+    private Handler renderHandler;
+    // render thread of the last attach, still stopping the render loop until it quits
+    private HandlerThread stoppingThread;
+    // work posted while no render thread runs, before the first attach or after a detach
+    private final List<Runnable> pendingWork = new ArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper(), new Handler.Callback() {
+        @Override
+        public boolean handleMessage(Message message) {
+            // a settle the render thread reports after a detach is dropped, renderHandler is null then
+            if (message.what == MSG_SELECTED && renderHandler != null && onItemSelectedListener != null) {
+                onItemSelectedListener.onItemSelected(message.arg1);
+            }
+            return true;
+        }
+    });
+
+    // forwards the gestures to the render thread, only called while it runs
+    private final WheelGestures.Callback gestureCallback = new WheelGestures.Callback() {
+        @Override
+        public void onDown(float x) {
+            renderHandler.sendEmptyMessage(MSG_DOWN);
+        }
+
+        @Override
+        public void onDrag(int dy) {
+            renderHandler.obtainMessage(MSG_DRAG, dy, 0).sendToTarget();
+        }
+
+        @Override
+        public void onFling(float velocityY) {
+            scrollBy(velocityY);
+        }
+
+        @Override
+        public void onRelease(float y, boolean tap) {
+            renderHandler.obtainMessage(MSG_RELEASE, (int) y, tap ? 1 : 0).sendToTarget();
+        }
+    };
+
+    public SurfacePicker(Context context) {
+        super(context);
+        initPicker(context, null);
+    }
+
+    public SurfacePicker(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        initPicker(context, attrs);
+    }
+
+    public SurfacePicker(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initPicker(context, attrs);
+    }
+
+    /**
+     * initialize picker, the render loop is built here and handed to the render thread when the view is attached
+     */
+    private void initPicker(Context context, AttributeSet attributeSet) {
+        gestures = new WheelGestures(context, gestureCallback);
+        PickerAttributes attributes = new PickerAttributes(context, attributeSet);
+        // the style is not registered, the registry is used on the UI thread and these paints on the render thread
+        renderLoop = new RenderLoop(new WheelLayout(attributes.visibleCount, attributes.lineSpacingMultiplier),
+                new PickerStyle(attributes.styleKey(SCALE_X)));
+        renderLoop.column.setLoop(attributes.loop);
+        getHolder().addCallback(this);
+    }
+
+    /**
+     * colour the surface is cleared with before each frame, the window behind the view does not show through
+     * @param color
+     */
+    public void setWheelBackgroundColor(final int color) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.backgroundColor = color;
+                renderLoop.requestDraw();
+            }
+        });
+    }
+
+    /**
+     * set center text color
+     * @param centerTextColor
+     */
+    public void setCenterTextColor(final int centerTextColor) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.restyle(renderLoop.style.key.withCenterColor(centerTextColor));
+            }
+        });
+    }
+
+    /**
+     * set outer text color
+     * @param outerTextColor
+     */
+    public void setOuterTextColor(final int outerTextColor) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.restyle(renderLoop.style.key.withOuterColor(outerTextColor));
+            }
+        });
+    }
+
+    /**
+     * set divider color
+     * @param dividerColor
+     */
+    public void setDividerColor(final int dividerColor) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.restyle(renderLoop.style.key.withDividerColor(dividerColor));
+            }
+        });
+    }
+
+    /**
+     * fade the labels towards the top and bottom edges into a colour, usually the wheel background colour
+     * @param fadeColor opaque colour, 0 for no fades
+     */
+    public void setFadeColor(final int fadeColor) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.renderer.setFadeColor(fadeColor);
+                renderLoop.requestDraw();
+            }
+        });
+    }
+
+    /**
+     * set text size in dp
+     * @param size
+     */
+    public final void setTextSize(float size) {
+        if (size > 0.0F) {
+            final int textSize = (int) (getResources().getDisplayMetrics().density * size);
+            runOnRenderThread(new Runnable() {
+                @Override
+                public void run() {
+                    renderLoop.restyle(renderLoop.style.key.withTextSize(textSize));
+                    renderLoop.remeasure();
+                }
+            });
+        }
+    }
+
+    /**
+     * set typeface of the item text
+     * @param typeface
+     */
+    public final void setTypeface(final Typeface typeface) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.restyle(renderLoop.style.key.withTypeface(typeface));
+            }
+        });
+    }
+
+    /**
+     * set not loop
+     */
+    public void setNotLoop() {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.column.setLoop(false);
+                renderLoop.requestDraw();
+            }
+        });
+    }
+
+    /**
+     * set items as a list of labels, the list is copied since the render thread reads it
+     * @param items
+     */
+    public final void setItems(List<String> items) {
+        setAdapter(new ListPickerAdapter(new ArrayList<>(items)));
+    }
+
+    /**
+     * show the numbers from min to max by step
+     * @param min
+     * @param max
+     * @param step
+     */
+    public final void setRange(int min, int max, int step) {
+        setAdapter(new NumberRangeAdapter(min, max, step));
+    }
+
+    /**
+     * set the source of the items, read on the render thread: its items must not change while it is set
+     * @param adapter
+     */
+    public final void setAdapter(final PickerAdapter adapter) {
+        if (adapter instanceof ObservableAdapter) {
+            // its change events come on the UI thread, while the render thread reads the items
+            throw new IllegalArgumentException("adapters with changing items are not supported: " + adapter);
+        }
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.column.setAdapter(adapter);
+                renderLoop.remeasure();
+                renderLoop.requestDraw();
+            }
+        });
+    }
+
+    /**
+     * set current item position, can be called from any thread
+     * @param position
+     */
+    public void setCurrentPosition(final int position) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            // the render thread and the pending work are handed over on the UI thread only
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    setCurrentPosition(position);
+                }
+            });
+            return;
+        }
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                WheelColumn column = renderLoop.column;
+                if (position >= 0 && position < column.getCount() && position != column.getSelectedItem()) {
+                    column.setCurrentPosition(position);
+                    selectedItem = position;
+                    renderLoop.requestDraw();
+                }
+            }
+        });
+    }
+
+    /**
+     * item the wheel last settled on
+     */
+    public final int getSelectedItem() {
+        return selectedItem;
+    }
+
+    /**
+     * get the item the wheel settles on, delivered on the UI thread
+     * @param listener
+     */
+    public final void setListener(Picker.OnItemSelectedListener listener) {
+        onItemSelectedListener = listener;
+    }
+
+    /**
+     * report frame, animation and selection timings, null to stop measuring
+     * The listener is called on the render thread.
+     * @param listener
+     */
+    public void setMetricsListener(final PickerMetricsListener listener) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.metricsListener = listener;
+                renderLoop.touchUpNanos = 0;
+            }
+        });
+    }
+
+    /**
+     * fling the wheel, it stops on the item where friction brings it
+     * @param velocityY finger velocity in pixels per second, positive downwards
+     */
+    protected final void scrollBy(float velocityY) {
+        if (renderHandler != null) {
+            renderHandler.obtainMessage(MSG_FLING, Float.floatToIntBits(velocityY), 0).sendToTarget();
+        }
+    }
+
+    /*
+     * run on the render thread, or once it starts; the render loop is only touched from there.
+     * Called on the UI thread, which starts and stops the render thread.
+     */
+    private void runOnRenderThread(Runnable work) {
+        if (renderHandler != null) {
+            renderHandler.post(work);
+        } else {
+            pendingWork.add(work);
+        }
+    }
+
+    /*
+     * run on the render thread and wait for it, the surface must be let go before its callbacks return
+     */
+    private void runOnRenderThreadAndWait(final Runnable work) {
+        if (renderHandler == null) {
+            return;
+        }
+        final CountDownLatch done = new CountDownLatch(1);
+        renderHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                work.run();
+                done.countDown();
+            }
+        });
+        try {
+            done.await(RELEASE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        renderThread = new HandlerThread("picker-render", Process.THREAD_PRIORITY_DISPLAY);
+        renderThread.start();
+        final Looper looper = renderThread.getLooper();
+        final HandlerThread previous = stoppingThread;
+        stoppingThread = null;
+        renderHandler = new Handler(looper, renderLoop);
+        renderHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                // attached again right after a detach: the loop moves over once the old thread let go of it
+                if (previous != null) {
+                    joinQuietly(previous);
+                }
+                renderLoop.start(looper);
+            }
+        });
+        for (Runnable work : pendingWork) {
+            renderHandler.post(work);
+        }
+        pendingWork.clear();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        // the surface is destroyed in here, its callback waits for the render thread to let go of it
+        super.onDetachedFromWindow();
+        gestures.release();
+        mainHandler.removeMessages(MSG_SELECTED);
+        final HandlerThread thread = renderThread;
+        renderHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                // nothing may stay queued on the render thread's choreographer
+                renderLoop.stop();
+                thread.quit();
+            }
+        });
+        stoppingThread = thread;
+        renderThread = null;
+        renderHandler = null;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility != VISIBLE && renderHandler != null) {
+            renderHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    renderLoop.column.finishAnimation();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void surfaceCreated(final SurfaceHolder holder) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.surface = holder.getSurface();
+            }
+        });
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, final int width, final int height) {
+        final int paddingLeft = getPaddingLeft();
+        final int paddingRight = getPaddingRight();
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.setSize(width, height, paddingLeft, paddingRight);
+                renderLoop.requestDraw();
+            }
+        });
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        runOnRenderThreadAndWait(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop.surface = null;
+            }
+        });
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (renderHandler == null) {
+            return false;
+        }
+        return gestures.onTouchEvent(this, event);
+    }
+
+    /*
+     * The wheel on the render thread: its column, layout and style, the surface, and the frames drawn into it.
+     * Built on the UI thread, then used on the render thread only.
+     */
+    private final class RenderLoop implements WheelColumn.Host, Choreographer.FrameCallback, Handler.Callback {
+        final WheelLayout layout;
+        // paints of the wheel, never changed: another look is another style
+        PickerStyle style;
+        final WheelRenderer renderer;
+        final WheelColumn column;
+        // posts to the current render thread, the column's background results come back through it
+        private volatile Handler handler;
+        private Choreographer choreographer;
+        Surface surface;
+        int backgroundColor = 0xffffffff;
+        PickerMetricsListener metricsListener;
+        long touchUpNanos;
+        private int width;
+        private int height;
+        private int left;
+        private int right;
+        private boolean drawPosted;
+        // the scroll state changed since the last frame drawn
+        private boolean dirty;
+
+        RenderLoop(WheelLayout layout, PickerStyle style) {
+            this.layout = layout;
+            this.style = style;
+            renderer = new WheelRenderer(style.outerPaint, style.centerPaint, style.dividerPaint);
+            column = new WheelColumn(this, layout, style.outerPaint, style.centerPaint, SCALE_X, new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    // dropped once the thread quit, a later attach builds the results again
+                    Handler current = handler;
+                    if (current != null) {
+                        current.post(command);
+                    }
+                }
+            });
+            column.setStyle(style);
+        }
+
+        /**
+         * draw with the style of another key, its labels are measured again
+         */
+        void restyle(PickerStyle.Key key) {
+            if (key.equals(style.key)) {
+                return;
+            }
+            style = new PickerStyle(key);
+            renderer.setPaints(style.outerPaint, style.centerPaint, style.dividerPaint);
+            column.setStyle(style);
+            requestDraw();
+        }
+
+        /**
+         * bind to a new render thread, called on it
+         */
+        void start(Looper looper) {
+            handler = new Handler(looper);
+            choreographer = Choreographer.getInstance();
+            requestDraw();
+        }
+
+        /**
+         * let go of the render thread before it quits, the running fling ends on its item without reporting it
+         */
+        void stop() {
+            column.finishAnimationQuietly();
+            if (column.getCount() > 0) {
+                selectedItem = column.getSelectedItem();
+            }
+            if (drawPosted) {
+                choreographer.removeFrameCallback(this);
+                drawPosted = false;
+            }
+            column.releaseCaches();
+            surface = null;
+            handler = null;
+            choreographer = null;
+        }
+
+        void setSize(int width, int height, int paddingLeft, int paddingRight) {
+            this.width = width;
+            this.height = height;
+            left = paddingLeft;
+            right = width - paddingRight;
+            remeasure();
+        }
+
+        void remeasure() {
+            if (column.getAdapter() == null || width == 0 || !layout.measure(height)) {
+                return;
+            }
+            column.initPositionIfUnset();
+        }
+
+        /**
+         * draw a frame on the next vsync of the render thread
+         */
+        void requestDraw() {
+            dirty = true;
+            if (!drawPosted && choreographer != null) {
+                choreographer.postFrameCallback(this);
+                drawPosted = true;
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            drawPosted = false;
+            drawFrame();
+        }
+
+        private void drawFrame() {
+            dirty = false;
+            Surface target = surface;
+            if (target == null || !target.isValid()) {
+                return;
+            }
+            Canvas canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                    ? target.lockHardwareCanvas() : target.lockCanvas(null);
+            if (canvas == null) {
+                return;
+            }
+            try {
+                canvas.drawColor(backgroundColor, PorterDuff.Mode.SRC);
+                if (column.getCount() > 0 && layout.isMeasured()) {
+                    drawWheel(canvas);
+                }
+            } finally {
+                target.unlockCanvasAndPost(canvas);
+            }
+        }
+
+        private void drawWheel(Canvas canvas) {
+            PickerMetricsListener metrics = metricsListener;
+            long drawStartNanos = 0;
+            int cacheHits = 0;
+            int cacheMisses = 0;
+            if (metrics != null) {
+                drawStartNanos = System.nanoTime();
+                cacheHits = column.getCacheHitCount();
+                cacheMisses = column.getCacheMissCount();
+            }
+
+            renderer.drawColumn(canvas, layout, column, left, right, null);
+            renderer.drawChrome(canvas, layout, left, right);
+
+            if (metrics != null) {
+                metrics.onFrameDrawn(System.nanoTime() - drawStartNanos,
+                        column.getCacheHitCount() - cacheHits, column.getCacheMissCount() - cacheMisses);
+            }
+        }
+
+        /*
+         * touch input forwarded from the UI thread
+         */
+        @Override
+        public boolean handleMessage(Message message) {
+            switch (message.what) {
+                case MSG_DOWN:
+                    column.cancelAnimation();
+                    break;
+                case MSG_DRAG:
+                    column.drag(message.arg1);
+                    break;
+                case MSG_FLING:
+                    if (metricsListener != null) {
+                        touchUpNanos = System.nanoTime();
+                    }
+                    column.fling(Float.intBitsToFloat(message.arg1));
+                    break;
+                case MSG_RELEASE:
+                    if (metricsListener != null) {
+                        touchUpNanos = System.nanoTime();
+                    }
+                    if (layout.isMeasured()) {
+                        int scrollY = column.scrollState.getScrollY();
+                        boolean tap = message.arg2 != 0;
+                        column.snap(tap ? layout.tapDistance(message.arg1, scrollY) : layout.snapDistance(scrollY));
+                    }
+                    break;
+                default:
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void onColumnScrolled(WheelColumn column) {
+            requestDraw();
+        }
+
+        @Override
+        public void onColumnSettled(WheelColumn column) {
+            if (column.getCount() == 0) {
+                return;
+            }
+            int item = column.getSelectedItem();
+            selectedItem = item;
+            if (metricsListener != null && touchUpNanos != 0) {
+                metricsListener.onItemSelected(System.nanoTime() - touchUpNanos);
+                touchUpNanos = 0;
+            }
+            mainHandler.obtainMessage(MSG_SELECTED, item, 0).sendToTarget();
+        }
+
+        @Override
+        public void onColumnAnimationTick(WheelColumn column, long frameTimeNanos) {
+            if (metricsListener != null) {
+                metricsListener.onAnimationTick(frameTimeNanos);
+            }
+            // the step is drawn on its own vsync rather than on the next one
+            if (dirty) {
+                if (drawPosted) {
+                    choreographer.removeFrameCallback(this);
+                    drawPosted = false;
+                }
+                drawFrame();
+            }
+        }
+
+        @Override
+        public void onColumnFlingFinished(WheelColumn column, long durationNanos) {
+            if (metricsListener != null) {
+                metricsListener.onFlingFinished(durationNanos);
+            }
+        }
+
+        @Override
+        public void onColumnItemsChanged(WheelColumn column, int start, int removedCount, int insertedCount) {
+            requestDraw();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.LruCache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Bounded LRU cache of the measured width of item labels for one paint.
+ * Labels are cached unscaled, widths are returned scaled by the picker's horizontal text scale. The label
+ * widths may be shared with other pickers drawing with the same {@link PickerStyle}, the widths cached by
+ * position belong to one column. A private cache must be invalidated whenever the paint's text size or
+ * typeface changes.
+ */
+final class TextWidthCache {
+
+    static final int MAX_ENTRIES = 256;
+    // direct-mapped slots for labels drawn from char arrays, indexed by item position
+    private static final int POSITION_SLOTS = 256;
+
+    private Paint paint;
+    // unscaled widths by label
+    private LruCache<String, Integer> widths = new LruCache<>(MAX_ENTRIES);
+    // the widths belong to a shared style, whose paint never changes
+    private boolean shared;
+    private final Rect bounds = new Rect();
+    private final int[] slotPositions = new int[POSITION_SLOTS];
+    private final int[] slotWidths = new int[POSITION_SLOTS];
+    private float scaleX;
+    // bumped on every invalidation, so measurements started before it are dropped
+    private volatile int generation;
+    // lookups from the UI thread, prewarming is not counted
+    private int hitCount;
+    private int missCount;
+
+    TextWidthCache(Paint paint, float scaleX) {
+        this.paint = paint;
+        this.scaleX = scaleX;
+        clearPositions();
+    }
+
+    /**
+     * measure with the paint of a shared style, and share its label widths
+     * @param paint paint of the style, never changed
+     * @param widths unscaled label widths of the style
+     */
+    void share(Paint paint, LruCache<String, Integer> widths) {
+        this.paint = paint;
+        this.widths = widths;
+        shared = true;
+        generation++;
+        clearPositions();
+    }
+
+    /**
+     * scaled width of the label, measured on first use
+     * @param text
+     */
+    int getWidth(String text) {
+        Integer width = widths.get(text);
+        if (width == null) {
+            missCount++;
+            width = measure(paint, bounds, text);
+            widths.put(text, width);
+        } else {
+            hitCount++;
+        }
+        return scaled(width);
+    }
+
+    /**
+     * scaled width of a label given as chars, cached by item position without creating a String
+     * @param position index of the item, the same position must always have the same label
+     * @param text
+     * @param length
+     */
+    int getWidth(int position, char[] text, int length) {
+        int slot = position & (POSITION_SLOTS - 1);
+        if (slotPositions[slot] != position) {
+            missCount++;
+            paint.getTextBounds(text, 0, length, bounds);
+            slotWidths[slot] = scaled(bounds.width());
+            slotPositions[slot] = position;
+        } else {
+            hitCount++;
+        }
+        return slotWidths[slot];
+    }
+
+    int getHitCount() {
+        return hitCount;
+    }
+
+    int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * drop the widths cached by position, call when the labels of the positions change
+     */
+    void clearPositions() {
+        Arrays.fill(slotPositions, -1);
+    }
+
+    void setScaleX(float scaleX) {
+        if (this.scaleX != scaleX) {
+            this.scaleX = scaleX;
+            // the label widths are unscaled
+            clearPositions();
+        }
+    }
+
+    /**
+     * drop all widths, call after changing the paint; shared label widths stay, their paint does not change
+     */
+    void invalidate() {
+        generation++;
+        if (!shared) {
+            widths.evictAll();
+        }
+        clearPositions();
+    }
+
+    /**
+     * measure labels on the executor so the first frames find them cached
+     * @param texts labels to measure, at most {@link #MAX_ENTRIES} are kept
+     */
+    void prewarm(final List<String> texts, Executor executor) {
+        // the paint is only touched on the UI thread, the worker measures with a snapshot
+        final Paint snapshot = new Paint(paint);
+        final LruCache<String, Integer> target = widths;
+        // shared widths are never stale, the paint of their style does not change
+        final boolean targetShared = shared;
+        final int snapshotGeneration = generation;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Rect rect = new Rect();
+                for (int i = 0; i < texts.size(); i++) {
+                    if (generation != snapshotGeneration) {
+                        return;
+                    }
+                    String text = texts.get(i);
+                    if (target.get(text) == null) {
+                        target.put(text, measure(snapshot, rect, text));
+                        if (generation != snapshotGeneration && !targetShared) {
+                            // invalidated while measuring, the width may be stale
+                            target.remove(text);
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private int scaled(int width) {
+        width *= scaleX;
+        return width;
+    }
+
+    private static int measure(Paint paint, Rect rect, String text) {
+        paint.getTextBounds(text, 0, text.length(), rect);
+        return rect.width();
+    }
+}
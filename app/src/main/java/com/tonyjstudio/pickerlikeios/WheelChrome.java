@@ -0,0 +1,92 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+
+/**
+ * The parts of a wheel that do not move: the two divider lines and the optional fades at the top and bottom.
+ * They are drawn on every frame, four calls at most; the fade shaders are kept and built again only when
+ * the size, the divider lines or the fade colour changed since they were built.
+ */
+final class WheelChrome {
+
+    private Paint dividerPaint;
+    private final Paint fadePaint = new Paint();
+    // 0 draws no fades
+    private int fadeColor;
+
+    // inputs of the fade shaders, a change of any of them builds them again
+    private boolean built;
+    private int left;
+    private int right;
+    private int height;
+    private int firstLineY;
+    private int secondLineY;
+    private int builtFadeColor;
+    private Shader topFade;
+    private Shader bottomFade;
+
+    WheelChrome(Paint dividerPaint) {
+        this.dividerPaint = dividerPaint;
+    }
+
+    /**
+     * draw the lines with another paint
+     */
+    void setDividerPaint(Paint dividerPaint) {
+        this.dividerPaint = dividerPaint;
+    }
+
+    /**
+     * colour the labels fade into towards the top and bottom edges, usually the background colour
+     * @param fadeColor opaque colour, or 0 for no fades
+     */
+    void setFadeColor(int fadeColor) {
+        this.fadeColor = fadeColor;
+    }
+
+    /**
+     * draw the chrome over the labels of the columns between left and right
+     */
+    void draw(Canvas canvas, WheelLayout layout, int left, int right) {
+        if (!built || left != this.left || right != this.right || layout.getHeight() != height
+                || layout.getFirstLineY() != firstLineY || layout.getSecondLineY() != secondLineY
+                || fadeColor != builtFadeColor) {
+            update(layout, left, right);
+        }
+        if (topFade != null) {
+            fadePaint.setShader(topFade);
+            canvas.drawRect(left, 0, right, firstLineY, fadePaint);
+            fadePaint.setShader(bottomFade);
+            canvas.drawRect(left, secondLineY, right, height, fadePaint);
+            fadePaint.setShader(null);
+        }
+        canvas.drawLine(left, firstLineY, right, firstLineY, dividerPaint);
+        canvas.drawLine(left, secondLineY, right, secondLineY, dividerPaint);
+    }
+
+    /*
+     * take the new inputs and rebuild the fade shaders
+     */
+    private void update(WheelLayout layout, int left, int right) {
+        this.left = left;
+        this.right = right;
+        height = layout.getHeight();
+        firstLineY = layout.getFirstLineY();
+        secondLineY = layout.getSecondLineY();
+        builtFadeColor = fadeColor;
+        if (fadeColor != 0) {
+            int transparent = fadeColor & 0x00ffffff;
+            topFade = new LinearGradient(0, 0, 0, firstLineY, fadeColor, transparent, Shader.TileMode.CLAMP);
+            bottomFade = new LinearGradient(0, secondLineY, 0, height, transparent, fadeColor, Shader.TileMode.CLAMP);
+        } else {
+            topFade = null;
+            bottomFade = null;
+        }
+        built = true;
+    }
+}
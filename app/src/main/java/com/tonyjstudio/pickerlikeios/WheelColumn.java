@@ -0,0 +1,662 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.graphics.Paint;
+
+import com.tonyjstudio.pickerlikeios.wheel.ItemDiff;
+import com.tonyjstudio.pickerlikeios.wheel.ItemWindow;
+import com.tonyjstudio.pickerlikeios.wheel.PrefixIndex;
+import com.tonyjstudio.pickerlikeios.wheel.ScrollCurve;
+import com.tonyjstudio.pickerlikeios.wheel.ScrollState;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+import com.tonyjstudio.pickerlikeios.wheel.WheelState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * One wheel of a picker view: its items, scroll state, fling and snap, and the draw commands of its frame.
+ * A view hosts one or more columns and shares its wheel layout and paints between them, each column
+ * scrolls on its own and reports back to the view through a {@link Host}. Used on the thread that owns it only,
+ * the UI thread or the render thread of a {@link SurfacePicker}, except for the scroll state which any thread may read.
+ */
+final class WheelColumn {
+
+    // no scroll snapshot has this value, the initial position is never negative once drawn
+    private static final long NOT_DRAWN = Long.MIN_VALUE;
+    // shown in the slots past the ends of a non-loop wheel
+    private static final String EMPTY_TEXT = "";
+    // larger wheels are not indexed for typeahead, the labels of an adapter that is not a list are read
+    // on the owning thread to build the index
+    private static final int MAX_INDEXED_ITEMS = 50000;
+
+    /*
+     * View hosting the column, called on the thread owning the column
+     */
+    interface Host {
+        /**
+         * the scroll position changed and differs from the one last drawn
+         */
+        void onColumnScrolled(WheelColumn column);
+
+        /**
+         * a snap or fling ended, {@link #getSelectedItem()} is the item the column rests on
+         */
+        void onColumnSettled(WheelColumn column);
+
+        /**
+         * an animation of the column stepped on a vsync
+         */
+        void onColumnAnimationTick(WheelColumn column, long frameTimeNanos);
+
+        /**
+         * a fling came to rest
+         * @param durationNanos time from the start of the fling to its last step
+         */
+        void onColumnFlingFinished(WheelColumn column, long durationNanos);
+
+        /**
+         * items of the column changed, the rendered labels of the range are stale and the positions after it moved
+         * @param start first changed position
+         * @param removedCount items removed from start, or the changed count when only labels changed
+         * @param insertedCount items inserted at start, equal to removedCount when only labels changed
+         */
+        void onColumnItemsChanged(WheelColumn column, int start, int removedCount, int insertedCount);
+    }
+
+    private final Host host;
+    private final WheelLayout layout;
+    // runs background results on the thread owning the column
+    private final Executor ownerExecutor;
+
+    // scroll offset and initial position, changed on the owning thread only
+    final ScrollState scrollState = new ScrollState();
+    final WheelState wheelState = new WheelState();
+    final TextWidthCache outerTextWidths;
+    final TextWidthCache centerTextWidths;
+
+    private PickerAdapter adapter;
+    // set for a paged adapter, told which pages each frame shows
+    private PagedPickerAdapter pagedAdapter;
+    // set in number range mode, labels are then written into itemChars
+    private NumberRangeAdapter numberAdapter;
+    private char[] itemChars;
+    private int itemCharsLength;
+    private boolean loop = true;
+
+    // scroll snapshot of the last frame drawn, a scroll that ends on it needs no new frame
+    private long drawnScroll = NOT_DRAWN;
+    private int selectedItem;
+    private ScrollAnimation animation;
+    // typeahead index of the labels, null while it is built or when the adapter is not indexed,
+    // it lags behind the edits in prefixIndexEdits
+    private PrefixIndex prefixIndex;
+    // the labels are indexed, the index may still be on its way
+    private boolean prefixIndexed;
+    // edits not patched into prefixIndex yet, as {sequence, start, removedCount, insertedCount} in order
+    private final ArrayList<int[]> prefixIndexEdits = new ArrayList<>();
+    private int prefixEditSequence;
+    // bumped on every rebuild, so an index built for previous items is dropped
+    private int prefixIndexGeneration;
+    // index the edits are patched into, used by the single background thread only
+    private PrefixIndex backgroundIndex;
+    private int backgroundIndexGeneration;
+    // pixels per second of the running fling or smooth scroll, 0 when it rests or follows the finger
+    private float scrollVelocity;
+
+    private final ObservableAdapter.OnItemsChangedListener itemsChangedListener =
+            new ObservableAdapter.OnItemsChangedListener() {
+                @Override
+                public void onItemRangeChanged(int start, int count) {
+                    host.onColumnItemsChanged(WheelColumn.this, start, count, count);
+                }
+
+                @Override
+                public void onItemRangeReplaced(int start, int removedCount, int insertedCount) {
+                    keepSelection(start, removedCount, insertedCount);
+                    patchPrefixIndex(start, removedCount, insertedCount);
+                    host.onColumnItemsChanged(WheelColumn.this, start, removedCount, insertedCount);
+                }
+            };
+
+    WheelColumn(Host host, WheelLayout layout, Paint outerPaint, Paint centerPaint, float scaleX) {
+        this(host, layout, outerPaint, centerPaint, scaleX, PickerExecutors.mainThread());
+    }
+
+    /**
+     * column owned by another looper thread than the UI thread
+     * @param ownerExecutor posts to the looper of the owning thread
+     */
+    WheelColumn(Host host, WheelLayout layout, Paint outerPaint, Paint centerPaint, float scaleX,
+                Executor ownerExecutor) {
+        this.host = host;
+        this.layout = layout;
+        this.ownerExecutor = ownerExecutor;
+        outerTextWidths = new TextWidthCache(outerPaint, scaleX);
+        centerTextWidths = new TextWidthCache(centerPaint, scaleX);
+    }
+
+    /**
+     * set the source of the items, the widths of a list are measured in the background
+     * @param adapter
+     */
+    void setAdapter(PickerAdapter adapter) {
+        if (this.adapter instanceof ObservableAdapter) {
+            ((ObservableAdapter) this.adapter).setOnItemsChangedListener(null);
+        }
+        this.adapter = adapter;
+        pagedAdapter = adapter instanceof PagedPickerAdapter ? (PagedPickerAdapter) adapter : null;
+        if (adapter instanceof ObservableAdapter) {
+            ((ObservableAdapter) adapter).setOnItemsChangedListener(itemsChangedListener);
+        }
+        if (adapter instanceof NumberRangeAdapter) {
+            numberAdapter = (NumberRangeAdapter) adapter;
+            itemChars = new char[numberAdapter.getMaxLength()];
+        } else {
+            numberAdapter = null;
+            itemChars = null;
+            // the labels of a paged adapter are not loaded yet, they are measured when drawn
+            if (adapter != null && pagedAdapter == null) {
+                prewarmTextWidths();
+            }
+        }
+        outerTextWidths.clearPositions();
+        centerTextWidths.clearPositions();
+        fitScrollToCount();
+        rebuildPrefixIndex();
+    }
+
+    /*
+     * keep the item in the middle when the new items have it, otherwise rest on the item the wheel maps to:
+     * an initial position or a scroll past the new count is never kept
+     */
+    private void fitScrollToCount() {
+        long scroll = scrollState.snapshot();
+        int initPosition = ScrollState.initPosition(scroll);
+        int count = getCount();
+        if (count == 0) {
+            cancelAnimation();
+            scrollState.reset(-1);
+            selectedItem = 0;
+            return;
+        }
+        if (initPosition == -1) {
+            return;
+        }
+        int change = layout.isMeasured() ? Math.round(ScrollState.scrollY(scroll) / layout.getItemHeight()) : 0;
+        long centered = (long) initPosition + change;
+        if (initPosition >= count || !loop && (centered < 0 || centered >= count)) {
+            cancelAnimation();
+            int position = ItemWindow.itemAt(change, initPosition, count, loop);
+            scrollState.reset(position);
+            selectedItem = position;
+        } else if (selectedItem >= count) {
+            selectedItem = ItemWindow.itemAt(change, initPosition, count, loop);
+        }
+    }
+
+    PickerAdapter getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * number of items, 0 without an adapter
+     */
+    int getCount() {
+        return adapter == null ? 0 : adapter.getCount();
+    }
+
+    void setLoop(boolean loop) {
+        this.loop = loop;
+    }
+
+    boolean isLoop() {
+        return loop;
+    }
+
+    /**
+     * item in the middle of the last frame drawn, or the item the column settled on
+     */
+    int getSelectedItem() {
+        return selectedItem;
+    }
+
+    void setSelectedItem(int selectedItem) {
+        this.selectedItem = selectedItem;
+    }
+
+    /**
+     * show the middle item of a loop or the first item, unless an initial position is set
+     */
+    void initPositionIfUnset() {
+        scrollState.initPositionIfUnset(loop ? (getCount() + 1) / 2 : 0);
+    }
+
+    /**
+     * jump to an item without animation
+     * @param position
+     */
+    void setCurrentPosition(int position) {
+        cancelAnimation();
+        scrollState.reset(position);
+    }
+
+    /*
+     * move the scroll state so the item in the middle stays there after a range of items was replaced,
+     * an item removed or replaced itself gives way to the item taking its position, reported as a new selection
+     */
+    private void keepSelection(int start, int removedCount, int insertedCount) {
+        int count = getCount();
+        int oldCount = count - insertedCount + removedCount;
+        long scroll = scrollState.snapshot();
+        int initPosition = ScrollState.initPosition(scroll);
+        if (count == 0) {
+            cancelAnimation();
+            scrollState.reset(-1);
+            return;
+        }
+        if (oldCount == 0 || initPosition == -1) {
+            initPositionIfUnset();
+            return;
+        }
+        boolean animating = animation != null;
+        cancelAnimation();
+        int scrollY = ScrollState.scrollY(scroll);
+        int change = layout.isMeasured() ? Math.round(scrollY / layout.getItemHeight()) : 0;
+        int oldSelected = ItemWindow.itemAt(change, initPosition, oldCount, loop);
+        int newSelected = Math.min(ItemDiff.mapPosition(oldSelected, start, removedCount, insertedCount), count - 1);
+        // keep the part of an item the wheel is off the middle, a drag goes on from there
+        int restY = scrollY - (int) (change * layout.getItemHeight());
+        scrollState.reset(newSelected, restY);
+        selectedItem = newSelected;
+        if (animating && restY != 0) {
+            snap(layout.snapDistance(restY));
+        } else if (ItemDiff.isReplaced(oldSelected, start, removedCount)) {
+            host.onColumnSettled(this);
+        }
+    }
+
+    /**
+     * item closest to the middle for the current scroll state
+     */
+    int selectedIndex() {
+        return layout.selectedIndex(scrollState.snapshot(), getCount(), loop);
+    }
+
+    /*
+     * lowest scroll offset, the first item of a non-loop wheel is then in the middle
+     */
+    private int minScrollY() {
+        return layout.minScrollY(scrollState.getInitPosition(), loop);
+    }
+
+    /*
+     * highest scroll offset, the last item of a non-loop wheel is then in the middle
+     */
+    private int maxScrollY() {
+        return layout.maxScrollY(scrollState.getInitPosition(), getCount(), loop);
+    }
+
+    /**
+     * follow the finger, a non-loop wheel stops at its first and last item
+     * @param dy distance in pixels, positive towards the next items
+     */
+    void drag(int dy) {
+        scrollState.scrollBy(dy, minScrollY(), maxScrollY());
+        notifyIfScrolled();
+    }
+
+    /**
+     * fling the wheel, it stops on the item where friction brings it
+     * @param velocityY finger velocity in pixels per second, positive downwards
+     */
+    void fling(float velocityY) {
+        cancelAnimation();
+        ScrollAnimation animation = new ScrollAnimation(this, true);
+        // moving the finger down scrolls back to the previous items
+        animation.curve.fling(scrollState.getScrollY(), -velocityY, layout.getItemHeight(), minScrollY(), maxScrollY());
+        startAnimation(animation);
+    }
+
+    /**
+     * smooth scroll by a distance, then report the item it ends on
+     * @param distance
+     */
+    void snap(int distance) {
+        cancelAnimation();
+        ScrollAnimation animation = new ScrollAnimation(this, false);
+        int scrollY = scrollState.getScrollY();
+        animation.curve.start(scrollY, scrollY + distance, ScrollCurve.SNAP_TIME_CONSTANT);
+        startAnimation(animation);
+    }
+
+    /**
+     * scroll to an item in a bounded time, however far it is: the wheel first jumps without animation to a few
+     * items before it and rolls in over the last ones, then reports the item it ends on
+     * @param position
+     */
+    void jumpTo(int position) {
+        int count = getCount();
+        if (position < 0 || position >= count) {
+            return;
+        }
+        if (!layout.isMeasured() || scrollState.getInitPosition() == -1) {
+            setCurrentPosition(position);
+            return;
+        }
+        cancelAnimation();
+        float itemHeight = layout.getItemHeight();
+        int scrollY = scrollState.getScrollY();
+        int change = ItemWindow.changeBetween(selectedIndex(), position, count, loop);
+        int lead = layout.getVisibleCount() / 2;
+        if (Math.abs(change) > lead) {
+            int signedLead = change > 0 ? lead : -lead;
+            // the skipped items are never drawn
+            scrollState.reset(ItemWindow.itemAt(-signedLead, position, count, loop), 0);
+            snap((int) (signedLead * itemHeight));
+        } else {
+            int restY = scrollY - (int) (Math.round(scrollY / itemHeight) * itemHeight);
+            snap((int) (change * itemHeight) - restY);
+        }
+    }
+
+    /**
+     * first item whose label starts with the prefix, ignoring case
+     * @return the position, or {@link PrefixIndex#NOT_FOUND} when none matches or the index is not built yet
+     */
+    int findPrefix(CharSequence prefix) {
+        if (numberAdapter != null) {
+            return numberAdapter.findPrefix(prefix);
+        }
+        if (prefixIndex == null) {
+            return PrefixIndex.NOT_FOUND;
+        }
+        int position = prefixIndex.find(prefix);
+        // follow the item through the edits the index has not caught up with, a replaced one is not found
+        for (int i = 0; i < prefixIndexEdits.size() && position != PrefixIndex.NOT_FOUND; i++) {
+            int[] edit = prefixIndexEdits.get(i);
+            position = ItemDiff.isReplaced(position, edit[1], edit[2])
+                    ? PrefixIndex.NOT_FOUND : ItemDiff.mapPosition(position, edit[1], edit[2], edit[3]);
+        }
+        return position;
+    }
+
+    /*
+     * index the labels for typeahead in the background from a snapshot of a list, number labels are looked up
+     * arithmetically and the labels of a paged adapter are not all known
+     */
+    private void rebuildPrefixIndex() {
+        final int generation = ++prefixIndexGeneration;
+        prefixIndex = null;
+        prefixIndexed = false;
+        prefixIndexEdits.clear();
+        if (adapter == null || numberAdapter != null || pagedAdapter != null || getCount() > MAX_INDEXED_ITEMS) {
+            return;
+        }
+        prefixIndexed = true;
+        final String[] labels = snapshotLabels();
+        final int sequence = prefixEditSequence;
+        PickerExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                backgroundIndex = PrefixIndex.build(labels);
+                backgroundIndexGeneration = generation;
+                publishPrefixIndex(backgroundIndex, generation, sequence);
+            }
+        });
+    }
+
+    /*
+     * patch a replaced range into the index in the background, only the inserted labels are read here
+     */
+    private void patchPrefixIndex(final int start, final int removedCount, int insertedCount) {
+        if (!prefixIndexed || getCount() > MAX_INDEXED_ITEMS) {
+            rebuildPrefixIndex();
+            return;
+        }
+        final String[] inserted = new String[insertedCount];
+        for (int i = 0; i < insertedCount; i++) {
+            inserted[i] = adapter.getItemText(start + i);
+        }
+        final int generation = prefixIndexGeneration;
+        final int sequence = ++prefixEditSequence;
+        prefixIndexEdits.add(new int[]{sequence, start, removedCount, insertedCount});
+        // the background thread runs the build of this generation first
+        PickerExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (backgroundIndexGeneration == generation) {
+                    backgroundIndex = backgroundIndex.replace(start, removedCount, inserted);
+                    publishPrefixIndex(backgroundIndex, generation, sequence);
+                }
+            }
+        });
+    }
+
+    /*
+     * hand an index to the owning thread, it includes the edits up to sequence
+     */
+    private void publishPrefixIndex(final PrefixIndex index, final int generation, final int sequence) {
+        ownerExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != prefixIndexGeneration) {
+                    return;
+                }
+                prefixIndex = index;
+                while (!prefixIndexEdits.isEmpty() && prefixIndexEdits.get(0)[0] <= sequence) {
+                    prefixIndexEdits.remove(0);
+                }
+            }
+        });
+    }
+
+    /*
+     * labels the background thread can read, a list is copied as it is, other adapters are read item by item
+     */
+    private String[] snapshotLabels() {
+        if (adapter instanceof ListPickerAdapter) {
+            return ((ListPickerAdapter) adapter).snapshot();
+        }
+        if (adapter instanceof MutableListPickerAdapter) {
+            return ((MutableListPickerAdapter) adapter).snapshot();
+        }
+        String[] labels = new String[adapter.getCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = adapter.getItemText(i);
+        }
+        return labels;
+    }
+
+    private void startAnimation(ScrollAnimation animation) {
+        this.animation = animation;
+        FrameScheduler.getInstance().start(animation);
+    }
+
+    /**
+     * stop the running fling or smooth scroll, if any
+     */
+    void cancelAnimation() {
+        if (animation != null) {
+            FrameScheduler.getInstance().stop(animation);
+            animation = null;
+        }
+        scrollVelocity = 0f;
+    }
+
+    /**
+     * end the running fling or smooth scroll at once on the item it was heading to, reported as settled
+     */
+    void finishAnimation() {
+        ScrollAnimation running = animation;
+        if (running == null) {
+            return;
+        }
+        cancelAnimation();
+        scrollState.setScrollY(running.curve.getFinalY());
+        if (getCount() > 0) {
+            selectedItem = selectedIndex();
+            host.onColumnSettled(this);
+        }
+    }
+
+    /**
+     * end the running fling or smooth scroll at once on the item it was heading to without telling the host,
+     * for a view leaving its window
+     */
+    void finishAnimationQuietly() {
+        ScrollAnimation running = animation;
+        if (running == null) {
+            return;
+        }
+        cancelAnimation();
+        scrollState.setScrollY(running.curve.getFinalY());
+        if (getCount() > 0) {
+            selectedItem = selectedIndex();
+        }
+    }
+
+    /**
+     * drop the widths cached by position and stop prewarming, for a view leaving its window; the label widths
+     * belong to the style and are dropped by {@link PickerStyles#release} when its last picker lets go
+     */
+    void releaseCaches() {
+        invalidateTextWidths();
+    }
+
+    /*
+     * tell the host only when the scroll state differs from the one last drawn
+     */
+    private void notifyIfScrolled() {
+        if (scrollState.snapshot() != drawnScroll) {
+            host.onColumnScrolled(this);
+        }
+    }
+
+    /**
+     * fill the draw commands of the next frame from the current scroll state
+     */
+    void layoutFrame() {
+        // offset and initial position from the same snapshot
+        long scroll = scrollState.snapshot();
+        drawnScroll = scroll;
+        layout.layout(scroll, getCount(), loop, wheelState);
+        if (pagedAdapter != null && layout.getItemHeight() > 0) {
+            pagedAdapter.onScroll(wheelState.getCurrentIndex(), layout.getVisibleCount() / 2 + 1,
+                    scrollVelocity / layout.getItemHeight(), loop);
+        }
+    }
+
+    /**
+     * label of an item, null when it was written into {@link #getItemChars()}
+     * @param index item index or {@link ItemWindow#EMPTY}
+     */
+    String itemText(int index) {
+        if (index == ItemWindow.EMPTY) {
+            return EMPTY_TEXT;
+        }
+        if (numberAdapter != null) {
+            itemCharsLength = numberAdapter.getItemChars(index, itemChars);
+            return null;
+        }
+        return adapter.getItemText(index);
+    }
+
+    char[] getItemChars() {
+        return itemChars;
+    }
+
+    int getItemCharsLength() {
+        return itemCharsLength;
+    }
+
+    /**
+     * measure with the paints of a shared style, its measured label widths are shared with the other pickers
+     */
+    void setStyle(PickerStyle style) {
+        outerTextWidths.share(style.outerPaint, style.outerWidths);
+        centerTextWidths.share(style.centerPaint, style.centerWidths);
+    }
+
+    /*
+     * drop the measured widths, the paints are not changed in place: a new style is set instead
+     */
+    private void invalidateTextWidths() {
+        outerTextWidths.invalidate();
+        centerTextWidths.invalidate();
+    }
+
+    void setScaleX(float scaleX) {
+        outerTextWidths.setScaleX(scaleX);
+        centerTextWidths.setScaleX(scaleX);
+    }
+
+    int getCacheHitCount() {
+        return outerTextWidths.getHitCount() + centerTextWidths.getHitCount();
+    }
+
+    int getCacheMissCount() {
+        return outerTextWidths.getMissCount() + centerTextWidths.getMissCount();
+    }
+
+    /*
+     * measure the labels around the first shown item in the background
+     */
+    private void prewarmTextWidths() {
+        int size = adapter.getCount();
+        if (size == 0) {
+            return;
+        }
+        int start = scrollState.getInitPosition();
+        if (start == -1) {
+            start = loop ? (size + 1) / 2 : 0;
+        }
+        int count = Math.min(size, TextWidthCache.MAX_ENTRIES);
+        start = Math.max(0, Math.min(start - count / 2, size - count));
+        List<String> texts = new ArrayList<>(count);
+        for (int i = start; i < start + count; i++) {
+            texts.add(adapter.getItemText(i));
+        }
+        outerTextWidths.prewarm(texts, PickerExecutors.background());
+        centerTextWidths.prewarm(texts, PickerExecutors.background());
+    }
+
+    /*
+     * Fling or smooth scroll of a column, follows a scroll curve and reports the item where it ends
+     */
+    private static final class ScrollAnimation implements FrameScheduler.Animation {
+        final ScrollCurve curve = new ScrollCurve();
+        private final WheelColumn column;
+        private final boolean fling;
+        private final long startNanos;
+
+        ScrollAnimation(WheelColumn column, boolean fling) {
+            this.column = column;
+            this.fling = fling;
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            long elapsedNanos = frameTimeNanos - startNanos;
+            column.scrollState.setScrollY(curve.positionAt(elapsedNanos));
+            column.scrollVelocity = curve.velocityAt(elapsedNanos);
+            column.notifyIfScrolled();
+            column.host.onColumnAnimationTick(column, frameTimeNanos);
+            if (curve.isFinished(elapsedNanos)) {
+                if (fling) {
+                    column.host.onColumnFlingFinished(column, elapsedNanos);
+                }
+                column.animation = null;
+                column.scrollVelocity = 0f;
+                if (column.getCount() > 0) {
+                    // the frame showing the rest position is not drawn yet, take the item from the scroll state
+                    column.selectedItem = column.selectedIndex();
+                    column.host.onColumnSettled(column);
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+/**
+ * Touch handling shared by the wheel views: a drag follows the finger, a fast release flings, a slow one
+ * snaps to the nearest item and a short touch brings the touched item to the middle.
+ * The view forwards its touch events and gets the gestures back through a {@link Callback}.
+ * Used on the UI thread.
+ */
+final class WheelGestures {
+
+    // a touch shorter than this is a tap on an item, a longer one snaps to the nearest
+    private static final long TAP_MILLIS = 120;
+
+    /*
+     * Gestures of the wheel, called while the view handles a touch event
+     */
+    interface Callback {
+        /**
+         * the finger went down, stop the running animation
+         * @param x position in the view
+         */
+        void onDown(float x);
+
+        /**
+         * the finger moved
+         * @param dy pixels, positive upwards
+         */
+        void onDrag(int dy);
+
+        /**
+         * the finger left fast enough to fling
+         * @param velocityY pixels per second, positive downwards
+         */
+        void onFling(float velocityY);
+
+        /**
+         * the finger left without a fling, or the gesture was cancelled
+         * @param y position in the view
+         * @param tap the touch was short, the item under it is wanted
+         */
+        void onRelease(float y, boolean tap);
+    }
+
+    private final Callback callback;
+    private final int minFlingVelocity;
+    private final int maxFlingVelocity;
+    private VelocityTracker velocityTracker;
+    private float previousY;
+    private long startTime;
+
+    WheelGestures(Context context, Callback callback) {
+        this.callback = callback;
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    /**
+     * handle a touch event of the view, the parent may not intercept while the finger is down
+     * @return true, the view takes the whole gesture
+     */
+    boolean onTouchEvent(View view, MotionEvent event) {
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        // the tracker also reads the historical samples batched into move events
+        velocityTracker.addMovement(event);
+
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                startTime = System.currentTimeMillis();
+                previousY = event.getRawY();
+                callback.onDown(event.getX());
+                if (view.getParent() != null) {
+                    view.getParent().requestDisallowInterceptTouchEvent(true);
+                }
+                break;
+
+            case MotionEvent.ACTION_MOVE:
+                float dy = previousY - event.getRawY();
+                previousY = event.getRawY();
+                callback.onDrag((int) dy);
+                break;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+            default:
+                velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                float velocityY = velocityTracker.getYVelocity();
+                velocityTracker.recycle();
+                velocityTracker = null;
+                if (event.getAction() == MotionEvent.ACTION_UP && Math.abs(velocityY) > minFlingVelocity) {
+                    callback.onFling(velocityY);
+                } else {
+                    callback.onRelease(event.getY(), System.currentTimeMillis() - startTime <= TAP_MILLIS);
+                }
+                if (view.getParent() != null) {
+                    view.getParent().requestDisallowInterceptTouchEvent(false);
+                }
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * let go of the velocity tracker, call when the view is detached
+     */
+    void release() {
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+}
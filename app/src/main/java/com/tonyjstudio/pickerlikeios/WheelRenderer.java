@@ -0,0 +1,169 @@
+package com.tonyjstudio.pickerlikeios;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import com.tonyjstudio.pickerlikeios.wheel.ItemWindow;
+import com.tonyjstudio.pickerlikeios.wheel.WheelCanvas;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+import com.tonyjstudio.pickerlikeios.wheel.WheelPainter;
+import com.tonyjstudio.pickerlikeios.wheel.WheelState;
+
+/**
+ * Draws wheel columns on a canvas with the paints of the hosting view.
+ * The columns of a view share the renderer and the wheel layout, each column is drawn between its own
+ * left and right edge, labels are centered between them. The items are drawn band by band with one clip
+ * per band, see {@link WheelPainter#paintInBands}.
+ */
+final class WheelRenderer {
+
+    Paint outerPaint;
+    Paint centerPaint;
+    Paint dividerPaint;
+    private final CanvasTarget target = new CanvasTarget();
+    private final WheelChrome chrome;
+
+    WheelRenderer(Paint outerPaint, Paint centerPaint, Paint dividerPaint) {
+        this.outerPaint = outerPaint;
+        this.centerPaint = centerPaint;
+        this.dividerPaint = dividerPaint;
+        chrome = new WheelChrome(dividerPaint);
+    }
+
+    /**
+     * draw with the paints of another style, the paints are only read
+     */
+    void setPaints(Paint outerPaint, Paint centerPaint, Paint dividerPaint) {
+        this.outerPaint = outerPaint;
+        this.centerPaint = centerPaint;
+        this.dividerPaint = dividerPaint;
+        chrome.setDividerPaint(dividerPaint);
+    }
+
+    /**
+     * draw the two lines around the middle item and the fades over the labels
+     */
+    void drawChrome(Canvas canvas, WheelLayout layout, int left, int right) {
+        chrome.draw(canvas, layout, left, right);
+    }
+
+    /**
+     * @param fadeColor colour the labels fade into at the top and bottom, 0 for none
+     */
+    void setFadeColor(int fadeColor) {
+        chrome.setFadeColor(fadeColor);
+    }
+
+    /**
+     * lay out the column for its current scroll state and draw its visible items, see {@link WheelPainter}
+     * @param atlas pre-rendered labels of the column, or null
+     */
+    void drawColumn(Canvas canvas, WheelLayout layout, WheelColumn column, int left, int right, LabelAtlas atlas) {
+        column.layoutFrame();
+        WheelState wheelState = column.wheelState;
+        target.begin(canvas, layout, column, left, right, atlas);
+        WheelPainter.paintInBands(wheelState, layout, left, right, target);
+        target.end();
+        int center = wheelState.getCenterCommand();
+        if (center != -1) {
+            column.setSelectedItem(wheelState.getItem(center));
+        }
+    }
+
+    /*
+     * draw the label of a slot, a null text means the label is in the column's chars
+     */
+    private void drawItemText(Canvas canvas, WheelLayout layout, WheelColumn column, int index, String text,
+                              Paint paint, TextWidthCache widths, int left, int right, LabelAtlas atlas) {
+        int baseline = layout.getMaxTextHeight();
+        char[] chars = column.getItemChars();
+        int length = column.getItemCharsLength();
+        if (atlas != null && atlas.isUsable() && index != ItemWindow.EMPTY) {
+            int kind = paint == centerPaint ? LabelAtlas.KIND_CENTER : LabelAtlas.KIND_OUTER;
+            int row = atlas.find(index, kind);
+            if (row < 0) {
+                row = atlas.put(index, kind);
+                if (text != null) {
+                    atlas.renderRow(row, text, getTextX(left, right, widths.getWidth(text)), baseline, paint);
+                } else {
+                    int textWidth = widths.getWidth(index, chars, length);
+                    atlas.renderRow(row, chars, length, getTextX(left, right, textWidth), baseline, paint);
+                }
+            }
+            atlas.drawRow(canvas, row, paint);
+        } else if (text != null) {
+            canvas.drawText(text, getTextX(left, right, widths.getWidth(text)), baseline, paint);
+        } else {
+            int textWidth = widths.getWidth(index, chars, length);
+            canvas.drawText(chars, 0, length, getTextX(left, right, textWidth), baseline, paint);
+        }
+    }
+
+    /*
+     * Android canvas the painter draws a column on, set for the duration of one drawColumn call
+     */
+    private final class CanvasTarget implements WheelCanvas {
+        private Canvas canvas;
+        private WheelLayout layout;
+        private WheelColumn column;
+        private int left;
+        private int right;
+        private LabelAtlas atlas;
+
+        void begin(Canvas canvas, WheelLayout layout, WheelColumn column, int left, int right, LabelAtlas atlas) {
+            this.canvas = canvas;
+            this.layout = layout;
+            this.column = column;
+            this.left = left;
+            this.right = right;
+            this.atlas = atlas;
+        }
+
+        void end() {
+            canvas = null;
+            column = null;
+            atlas = null;
+        }
+
+        @Override
+        public void save() {
+            canvas.save();
+        }
+
+        @Override
+        public void restore() {
+            canvas.restore();
+        }
+
+        @Override
+        public void clipRect(int left, int top, int right, int bottom) {
+            canvas.clipRect(left, top, right, bottom);
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+            canvas.translate(dx, dy);
+        }
+
+        @Override
+        public void scale(float sx, float sy) {
+            canvas.scale(sx, sy);
+        }
+
+        @Override
+        public void drawItem(int item, boolean center) {
+            // numbers are drawn from the column's chars, see drawItemText
+            String text = column.itemText(item);
+            if (center) {
+                drawItemText(canvas, layout, column, item, text, centerPaint, column.centerTextWidths, left, right, atlas);
+            } else {
+                drawItemText(canvas, layout, column, item, text, outerPaint, column.outerTextWidths, left, right, atlas);
+            }
+        }
+    }
+
+    // text start drawing position
+    private static int getTextX(int left, int right, int textWidth) {
+        return (right - left - textWidth) / 2 + left;
+    }
+}
@@ -0,0 +1,73 @@
+package com.tonyjstudio.pickerlikeios;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the editable list adapter and the changes it reports.
+ */
+public class MutableListPickerAdapterTest {
+
+    /*
+     * Records the reported changes as "start,removed,inserted"
+     */
+    private static final class RecordingListener implements ObservableAdapter.OnItemsChangedListener {
+        final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void onItemRangeChanged(int start, int count) {
+            changes.add("changed " + start + "," + count);
+        }
+
+        @Override
+        public void onItemRangeReplaced(int start, int removedCount, int insertedCount) {
+            changes.add(start + "," + removedCount + "," + insertedCount);
+        }
+    }
+
+    @Test
+    public void edits_reportTheirRange() {
+        MutableListPickerAdapter adapter = new MutableListPickerAdapter(Arrays.asList("a", "b", "c"));
+        RecordingListener listener = new RecordingListener();
+        adapter.setOnItemsChangedListener(listener);
+
+        adapter.insertItems(1, Arrays.asList("x", "y"));
+        adapter.removeItems(0, 1);
+        adapter.setItem(3, "z");
+        assertEquals(Arrays.asList("1,0,2", "0,1,0", "3,1,1"), listener.changes);
+        assertEquals(4, adapter.getCount());
+        assertEquals("x", adapter.getItemText(0));
+        assertEquals("z", adapter.getItemText(3));
+    }
+
+    @Test
+    public void updateItems_reportsOnlyTheDifference() {
+        List<String> days = new ArrayList<>();
+        for (int day = 1; day <= 31; day++) {
+            days.add(String.valueOf(day));
+        }
+        MutableListPickerAdapter adapter = new MutableListPickerAdapter(days);
+        RecordingListener listener = new RecordingListener();
+        adapter.setOnItemsChangedListener(listener);
+
+        adapter.updateItems(days.subList(0, 28));
+        adapter.updateItems(days.subList(0, 28));
+        adapter.updateItems(days.subList(0, 30));
+        assertEquals(Arrays.asList("28,3,0", "28,0,2"), listener.changes);
+        assertEquals(30, adapter.getCount());
+        assertEquals("30", adapter.getItemText(29));
+    }
+
+    @Test
+    public void constructor_copiesTheList() {
+        List<String> items = new ArrayList<>(Arrays.asList("a", "b"));
+        MutableListPickerAdapter adapter = new MutableListPickerAdapter(items);
+        items.add("c");
+        assertEquals(2, adapter.getCount());
+    }
+}
@@ -0,0 +1,149 @@
+package com.tonyjstudio.pickerlikeios;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the number range adapter.
+ */
+public class NumberRangeAdapterTest {
+
+    @Test
+    public void count_includesMaxWhenReachedByStep() {
+        assertEquals(100000, new NumberRangeAdapter(0, 99999, 1).getCount());
+        assertEquals(5, new NumberRangeAdapter(0, 20, 5).getCount());
+        assertEquals(4, new NumberRangeAdapter(0, 19, 5).getCount());
+        assertEquals(1, new NumberRangeAdapter(7, 7, 3).getCount());
+    }
+
+    @Test
+    public void count_fullIntRangeIsCapped() {
+        assertEquals(Integer.MAX_VALUE, new NumberRangeAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE, 1).getCount());
+    }
+
+    @Test
+    public void itemText_formatsValue() {
+        NumberRangeAdapter adapter = new NumberRangeAdapter(-10, 10, 5);
+        assertEquals("-10", adapter.getItemText(0));
+        assertEquals("-5", adapter.getItemText(1));
+        assertEquals("0", adapter.getItemText(2));
+        assertEquals("10", adapter.getItemText(4));
+    }
+
+    @Test
+    public void itemText_paddingPrefixSuffix() {
+        NumberRangeAdapter minutes = new NumberRangeAdapter(0, 59, 1, 2, null, null);
+        assertEquals("00", minutes.getItemText(0));
+        assertEquals("07", minutes.getItemText(7));
+        assertEquals("59", minutes.getItemText(59));
+
+        NumberRangeAdapter price = new NumberRangeAdapter(-5, 5, 1, 3, "$", " USD");
+        assertEquals("$-005 USD", price.getItemText(0));
+        assertEquals("$005 USD", price.getItemText(10));
+    }
+
+    @Test
+    public void itemChars_extremeValuesFitMaxLength() {
+        NumberRangeAdapter adapter = new NumberRangeAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE, 1, 0, "<", ">");
+        char[] buffer = new char[adapter.getMaxLength()];
+        int length = adapter.getItemChars(0, buffer);
+        assertEquals("<" + Integer.MIN_VALUE + ">", new String(buffer, 0, length));
+        length = adapter.getItemChars(adapter.getCount() - 1, buffer);
+        // the count is capped, so the last item is MIN_VALUE + MAX_VALUE - 1
+        assertEquals("<-2>", new String(buffer, 0, length));
+    }
+
+    @Test
+    public void position_inverseOfValue() {
+        NumberRangeAdapter years = new NumberRangeAdapter(1900, 2100, 1);
+        assertEquals(2018, years.getValue(years.getPosition(2018)));
+        assertEquals(-1, years.getPosition(1899));
+        assertEquals(-1, years.getPosition(2101));
+        NumberRangeAdapter even = new NumberRangeAdapter(0, 100, 2);
+        assertEquals(-1, even.getPosition(3));
+        assertEquals(2, even.getPosition(4));
+    }
+
+    @Test
+    public void findPrefix_matchesLinearScan() {
+        NumberRangeAdapter[] adapters = {
+                new NumberRangeAdapter(0, 59, 1, 2, null, null),
+                new NumberRangeAdapter(-250, 1300, 7),
+                new NumberRangeAdapter(1900, 2100, 1, 0, "Year ", " AD"),
+                new NumberRangeAdapter(-5, 5, 1, 3, "#", "%"),
+                new NumberRangeAdapter(0, 99999, 25, 12, null, "m")
+        };
+        Random random = new Random(3);
+        String alphabet = "0123456789-yYeaAr D#%m";
+        for (NumberRangeAdapter adapter : adapters) {
+            for (int run = 0; run < 3000; run++) {
+                String typed;
+                if (random.nextBoolean()) {
+                    // a prefix of some label, maybe with another last char
+                    String label = adapter.getItemText(random.nextInt(adapter.getCount()));
+                    typed = label.substring(0, 1 + random.nextInt(label.length()));
+                    if (random.nextInt(4) == 0) {
+                        char last = alphabet.charAt(random.nextInt(alphabet.length()));
+                        typed = typed.substring(0, typed.length() - 1) + last;
+                    }
+                } else {
+                    StringBuilder text = new StringBuilder();
+                    for (int i = 1 + random.nextInt(4); i > 0; i--) {
+                        text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                    }
+                    typed = text.toString();
+                }
+                assertEquals(typed, linearFind(adapter, typed), adapter.findPrefix(typed));
+            }
+        }
+        assertEquals(-1, adapters[0].findPrefix(""));
+    }
+
+    private static int linearFind(NumberRangeAdapter adapter, String typed) {
+        for (int i = 0; i < adapter.getCount(); i++) {
+            if (adapter.getItemText(i).toLowerCase().startsWith(typed.toLowerCase())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsZeroStep() {
+        new NumberRangeAdapter(0, 10, 0);
+    }
+
+    @Test
+    public void itemChars_allocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        NumberRangeAdapter adapter = new NumberRangeAdapter(0, 99999, 1, 5, "#", null);
+        char[] buffer = new char[adapter.getMaxLength()];
+        // warm up so the measured loop runs compiled code
+        for (int i = 0; i < 5; i++) {
+            formatAll(adapter, buffer);
+        }
+        // the first call allocates, warm it up so it does not count in the measured loop
+        threads.getThreadAllocatedBytes(threadId);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int length = formatAll(adapter, buffer);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(length > 0);
+        assertEquals("bytes allocated formatting 100000 items", 0, allocated);
+    }
+
+    private static int formatAll(NumberRangeAdapter adapter, char[] buffer) {
+        int length = 0;
+        for (int position = 0; position < adapter.getCount(); position++) {
+            length += adapter.getItemChars(position, buffer);
+        }
+        return length;
+    }
+}
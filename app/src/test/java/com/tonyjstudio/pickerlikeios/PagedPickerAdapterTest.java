@@ -0,0 +1,224 @@
+package com.tonyjstudio.pickerlikeios;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the paged adapter, against an in-memory source with a load latency.
+ * Pages are loaded on a real background thread and handed back to a queue the test drains, like the UI thread would.
+ */
+public class PagedPickerAdapterTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final long LATENCY_MILLIS = 20;
+
+    private ExecutorService backgroundThread;
+    // counts the loads started, so the test knows how many results to wait for
+    private final AtomicInteger submitted = new AtomicInteger();
+    private int drained;
+    private final Executor loadExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            submitted.incrementAndGet();
+            backgroundThread.execute(command);
+        }
+    };
+    private final BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+    private final Executor uiExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            uiQueue.add(command);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        backgroundThread = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        backgroundThread.shutdownNow();
+    }
+
+    @Test
+    public void itemText_placeholderUntilPageArrives() throws Exception {
+        FakeSource source = new FakeSource(1000);
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 8, loadExecutor, uiExecutor);
+        adapter.setPlaceholder("…");
+        final AtomicInteger loadedEvents = new AtomicInteger();
+        adapter.setOnItemsChangedListener(new ObservableAdapter.OnItemsChangedListener() {
+            @Override
+            public void onItemRangeChanged(int start, int count) {
+                assertEquals(500, start);
+                assertEquals(PAGE_SIZE, count);
+                loadedEvents.incrementAndGet();
+            }
+
+            @Override
+            public void onItemRangeReplaced(int start, int removedCount, int insertedCount) {
+                fail("a loaded page changes no item");
+            }
+        });
+
+        assertEquals(1000, adapter.getCount());
+        adapter.onScroll(505, 3, 0f, false);
+        assertEquals("…", adapter.getItemText(505));
+        assertFalse(adapter.isLoaded(505));
+
+        drainAll();
+        assertTrue(adapter.isLoaded(505));
+        assertEquals("item 505", adapter.getItemText(505));
+        assertEquals(1, loadedEvents.get());
+        assertEquals(1, source.loads.get());
+    }
+
+    @Test
+    public void onScroll_windowAcrossPagesLoadsBoth() throws Exception {
+        FakeSource source = new FakeSource(1000);
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 8, loadExecutor, uiExecutor);
+
+        adapter.onScroll(19, 3, 0f, false);
+        drainAll();
+        assertEquals(2, source.loads.get());
+        assertEquals("item 16", adapter.getItemText(16));
+        assertEquals("item 22", adapter.getItemText(22));
+        // loaded pages are not requested again
+        adapter.onScroll(20, 3, 0f, false);
+        assertTrue(uiQueue.isEmpty());
+        assertEquals(2, source.loads.get());
+    }
+
+    @Test
+    public void onScroll_flingPrefetchesAhead() throws Exception {
+        FakeSource source = new FakeSource(10000);
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 32, loadExecutor, uiExecutor);
+
+        // 200 items per second stop about 65 items further
+        adapter.onScroll(100, 3, 200f, false);
+        drainAll();
+        assertTrue(adapter.isLoaded(160));
+        assertFalse(adapter.isLoaded(80));
+    }
+
+    @Test
+    public void onScroll_distantPagesAreEvicted() throws Exception {
+        FakeSource source = new FakeSource(10000);
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 3, loadExecutor, uiExecutor);
+
+        for (int center = 5; center < 200; center += PAGE_SIZE) {
+            adapter.onScroll(center, 2, 0f, false);
+            drainAll();
+        }
+        assertTrue(adapter.isLoaded(195));
+        assertFalse(adapter.isLoaded(5));
+        int loaded = 0;
+        for (int position = 0; position < 200; position += PAGE_SIZE) {
+            if (adapter.isLoaded(position)) {
+                loaded++;
+            }
+        }
+        assertTrue(loaded <= 3);
+    }
+
+    @Test
+    public void itemTextOutsideTheWheel_keepsTheShownPages() throws Exception {
+        FakeSource source = new FakeSource(1000);
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 3, loadExecutor, uiExecutor);
+
+        adapter.onScroll(55, 12, 0f, false);
+        drainAll();
+        assertEquals("", adapter.getItemText(95));
+        drainAll();
+        assertTrue(adapter.isLoaded(45));
+        assertTrue(adapter.isLoaded(55));
+        assertTrue(adapter.isLoaded(65));
+        assertFalse(adapter.isLoaded(95));
+    }
+
+    @Test
+    public void refresh_dropsPagesOfPreviousData() throws Exception {
+        FakeSource source = new FakeSource(100);
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 8, loadExecutor, uiExecutor);
+
+        adapter.onScroll(50, 2, 0f, false);
+        source.count = 40;
+        adapter.refresh();
+        drainAll();
+        assertEquals(40, adapter.getCount());
+        assertFalse(adapter.isLoaded(30));
+    }
+
+    @Test
+    public void failedPage_isRequestedAgain() throws Exception {
+        FakeSource source = new FakeSource(100);
+        source.failures = 1;
+        PagedPickerAdapter adapter = new PagedPickerAdapter(source, PAGE_SIZE, 8, loadExecutor, uiExecutor);
+
+        adapter.onScroll(5, 2, 0f, false);
+        drainAll();
+        assertFalse(adapter.isLoaded(5));
+        adapter.onScroll(5, 2, 0f, false);
+        drainAll();
+        assertEquals("item 5", adapter.getItemText(5));
+    }
+
+    /*
+     * run the results of all loads started so far, waiting for them to arrive
+     */
+    private void drainAll() throws InterruptedException {
+        while (drained < submitted.get()) {
+            Runnable result = uiQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull("page not delivered", result);
+            drained++;
+            result.run();
+        }
+    }
+
+    /*
+     * Items "item <position>" held in memory, each load sleeps to stand in for a database or a network call
+     */
+    private static final class FakeSource implements PagedPickerAdapter.Source {
+        final AtomicInteger loads = new AtomicInteger();
+        volatile int count;
+        volatile int failures;
+
+        FakeSource(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public List<String> loadItems(int start, int count) throws Exception {
+            loads.incrementAndGet();
+            Thread.sleep(LATENCY_MILLIS);
+            if (failures > 0) {
+                failures--;
+                throw new Exception("source unavailable");
+            }
+            List<String> items = new ArrayList<>(count);
+            for (int i = start; i < start + count; i++) {
+                items.add("item " + i);
+            }
+            return Collections.unmodifiableList(items);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.tonyjstudio.pickerlikeios.benchmark;
+
+import com.tonyjstudio.pickerlikeios.wheel.ScrollState;
+import com.tonyjstudio.pickerlikeios.wheel.WheelCanvas;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+import com.tonyjstudio.pickerlikeios.wheel.WheelPainter;
+import com.tonyjstudio.pickerlikeios.wheel.WheelState;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canvas operations issued per frame by the band painter against the former per-item painter.
+ * The operations are counted, not executed, the counters are reported next to the time per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BandPaintingBenchmark {
+
+    private final WheelFixture fixture = new WheelFixture();
+    private final ScrollState scroll = new ScrollState();
+    private final WheelState state = new WheelState();
+    private WheelLayout layout;
+    private int scrollY;
+
+    /*
+     * Canvas counting the operations of the frames of one iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OpCounter implements WheelCanvas {
+        public long stateOps;
+        public long transformOps;
+        public long drawOps;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            stateOps = 0;
+            transformOps = 0;
+            drawOps = 0;
+        }
+
+        @Override
+        public void save() {
+            stateOps++;
+        }
+
+        @Override
+        public void restore() {
+            stateOps++;
+        }
+
+        @Override
+        public void clipRect(int left, int top, int right, int bottom) {
+            stateOps++;
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+            transformOps++;
+        }
+
+        @Override
+        public void scale(float sx, float sy) {
+            transformOps++;
+        }
+
+        @Override
+        public void drawItem(int item, boolean center) {
+            drawOps++;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        layout = fixture.buildLayout();
+        scroll.reset(50);
+    }
+
+    @Benchmark
+    public void paintInBands(OpCounter canvas) {
+        nextFrame();
+        WheelPainter.paintInBands(state, layout, 0, WheelFixture.HEIGHT, canvas);
+    }
+
+    @Benchmark
+    public void paintPerItem(OpCounter canvas) {
+        nextFrame();
+        WheelPainter.paintPerItem(state, layout, 0, WheelFixture.HEIGHT, canvas);
+    }
+
+    private void nextFrame() {
+        scrollY = (scrollY + 7) % 10000;
+        scroll.setScrollY(scrollY);
+        layout.layout(scroll.snapshot(), 100, true, state);
+    }
+}
@@ -0,0 +1,65 @@
+package com.tonyjstudio.pickerlikeios.benchmark;
+
+import com.tonyjstudio.pickerlikeios.wheel.ScrollCurve;
+import com.tonyjstudio.pickerlikeios.wheel.ScrollState;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+import com.tonyjstudio.pickerlikeios.wheel.WheelState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole fling at a given refresh rate, one operation is every frame from touch-up to the snap.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FlingBenchmark {
+
+    private static final int ITEM_COUNT = 20000;
+
+    @Param({"60", "120"})
+    public int refreshRate;
+
+    @Param({"1500", "8000"})
+    public float velocity;
+
+    private final WheelFixture fixture = new WheelFixture();
+    private final ScrollCurve curve = new ScrollCurve();
+    private final ScrollState scroll = new ScrollState();
+    private final WheelState state = new WheelState();
+    private WheelLayout layout;
+
+    @Setup
+    public void setUp() {
+        layout = fixture.buildLayout();
+        scroll.reset(ITEM_COUNT / 2);
+    }
+
+    @Benchmark
+    public int fling(Blackhole blackhole) {
+        long frameNanos = 1000000000L / refreshRate;
+        curve.fling(0, velocity, layout.getItemHeight(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+        int frames = 0;
+        for (long elapsed = 0; ; elapsed += frameNanos) {
+            scroll.setScrollY(curve.positionAt(elapsed));
+            layout.layout(scroll.snapshot(), ITEM_COUNT, true, state);
+            for (int i = 0; i < state.getCount(); i++) {
+                blackhole.consume(state.getTranslateY(i));
+            }
+            frames++;
+            if (curve.isFinished(elapsed)) {
+                return frames;
+            }
+        }
+    }
+}
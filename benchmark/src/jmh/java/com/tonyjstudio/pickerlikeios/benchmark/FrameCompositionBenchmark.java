@@ -0,0 +1,79 @@
+package com.tonyjstudio.pickerlikeios.benchmark;
+
+import com.tonyjstudio.pickerlikeios.wheel.ItemWindow;
+import com.tonyjstudio.pickerlikeios.wheel.ScrollState;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+import com.tonyjstudio.pickerlikeios.wheel.WheelState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work of one onDraw frame without the canvas: current item, visible slots, slot geometry and labels.
+ * The time and the allocation per frame must not grow with the item count, and gc.alloc.rate.norm of
+ * fillWindow stays at 0 bytes: the window reuses its slots on every frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrameCompositionBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int itemCount;
+
+    @Param({"true", "false"})
+    public boolean loop;
+
+    private final WheelFixture fixture = new WheelFixture();
+    private final ScrollState scroll = new ScrollState();
+    private final WheelState state = new WheelState();
+    private final ItemWindow window = new ItemWindow(WheelFixture.VISIBLE_COUNT);
+    private WheelLayout layout;
+    private String[] labels;
+    private int scrollY;
+    private int offset;
+
+    @Setup
+    public void setUp() {
+        layout = fixture.buildLayout();
+        labels = WheelFixture.labels(itemCount);
+        scroll.reset(loop ? (itemCount + 1) / 2 : 0);
+    }
+
+    @Benchmark
+    public void composeFrame(Blackhole blackhole) {
+        // a slow drag, stays inside the range of a non-loop wheel
+        scrollY = (scrollY + 7) % (int) (layout.getItemHeight() * (itemCount - 1) + 1);
+        scroll.setScrollY(scrollY);
+        layout.layout(scroll.snapshot(), itemCount, loop, state);
+        for (int i = 0; i < state.getCount(); i++) {
+            int index = state.getItem(i);
+            blackhole.consume(index == ItemWindow.EMPTY ? null : labels[index]);
+            blackhole.consume(state.getTranslateY(i));
+            blackhole.consume(state.getScale(i));
+            blackhole.consume(state.getBand(i));
+        }
+    }
+
+    @Benchmark
+    public void fillWindow(Blackhole blackhole) {
+        // the index work alone: current item from the scroll offset and the labels of the visible slots
+        offset = (offset + 7) % (int) (layout.getItemHeight() * itemCount);
+        int currentIndex = ItemWindow.currentIndex(offset, layout.getItemHeight(), (itemCount + 1) / 2, itemCount,
+                loop);
+        window.fill(currentIndex, itemCount, loop);
+        for (int slot = 0; slot < window.size(); slot++) {
+            int index = window.get(slot);
+            blackhole.consume(index == ItemWindow.EMPTY ? null : labels[index]);
+        }
+    }
+}
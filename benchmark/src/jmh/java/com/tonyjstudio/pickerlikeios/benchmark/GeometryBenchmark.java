@@ -0,0 +1,76 @@
+package com.tonyjstudio.pickerlikeios.benchmark;
+
+import com.tonyjstudio.pickerlikeios.wheel.WheelGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame slot geometry from the precomputed table against the trigonometry onDraw used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeometryBenchmark {
+
+    private final WheelFixture fixture = new WheelFixture();
+    private WheelGeometry geometry;
+    private int scrollY;
+
+    @Setup
+    public void setUp() {
+        geometry = fixture.buildGeometry();
+    }
+
+    @Benchmark
+    public void tableLookup(Blackhole blackhole) {
+        int offset = nextOffset();
+        for (int slot = 0; slot < WheelFixture.VISIBLE_COUNT; slot++) {
+            int entry = geometry.entry(slot, offset);
+            blackhole.consume(geometry.band(entry));
+            blackhole.consume(geometry.translateY(entry));
+            blackhole.consume(geometry.scale(entry));
+        }
+    }
+
+    @Benchmark
+    public void directTrig(Blackhole blackhole) {
+        int offset = nextOffset();
+        int maxTextHeight = fixture.maxTextHeight;
+        for (int slot = 0; slot < WheelFixture.VISIBLE_COUNT; slot++) {
+            double radian = ((fixture.itemHeight * slot - offset) * Math.PI) / fixture.halfCircumference;
+            if (radian >= Math.PI || radian <= 0) {
+                blackhole.consume(WheelGeometry.BAND_HIDDEN);
+                continue;
+            }
+            int translateY = (int) (fixture.radius - Math.cos(radian) * fixture.radius
+                    - (Math.sin(radian) * maxTextHeight) / 2D);
+            byte band;
+            if (translateY <= fixture.firstLineY && maxTextHeight + translateY >= fixture.firstLineY) {
+                band = WheelGeometry.BAND_CROSS_FIRST;
+            } else if (translateY <= fixture.secondLineY && maxTextHeight + translateY >= fixture.secondLineY) {
+                band = WheelGeometry.BAND_CROSS_SECOND;
+            } else if (translateY >= fixture.firstLineY && maxTextHeight + translateY <= fixture.secondLineY) {
+                band = WheelGeometry.BAND_CENTER;
+            } else {
+                band = WheelGeometry.BAND_OUTER;
+            }
+            blackhole.consume(band);
+            blackhole.consume(translateY);
+            blackhole.consume((float) Math.sin(radian));
+        }
+    }
+
+    private int nextOffset() {
+        scrollY += 7;
+        return (int) (scrollY % fixture.itemHeight);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tonyjstudio.pickerlikeios.benchmark;
+
+import com.tonyjstudio.pickerlikeios.wheel.WheelGeometry;
+import com.tonyjstudio.pickerlikeios.wheel.WheelLayout;
+
+/**
+ * Wheel of a 200dp picker at xxhdpi with the picker's default spacing and visible count.
+ */
+final class WheelFixture {
+
+    static final int HEIGHT = 600;
+    static final int VISIBLE_COUNT = 9;
+    static final float LINE_SPACING = 2f;
+
+    final int halfCircumference = (int) (HEIGHT * Math.PI / 2);
+    final int maxTextHeight = (int) (halfCircumference / (LINE_SPACING * (VISIBLE_COUNT - 1)));
+    final float itemHeight = LINE_SPACING * maxTextHeight;
+    final int radius = HEIGHT / 2;
+    final int firstLineY = (int) ((HEIGHT - itemHeight) / 2.0F);
+    final int secondLineY = (int) ((HEIGHT + itemHeight) / 2.0F);
+
+    WheelGeometry buildGeometry() {
+        WheelGeometry geometry = new WheelGeometry();
+        geometry.build(VISIBLE_COUNT, itemHeight, maxTextHeight, halfCircumference, radius, firstLineY, secondLineY);
+        return geometry;
+    }
+
+    WheelLayout buildLayout() {
+        WheelLayout layout = new WheelLayout(VISIBLE_COUNT, LINE_SPACING);
+        layout.measure(HEIGHT);
+        return layout;
+    }
+
+    static String[] labels(int count) {
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = "Item " + i;
+        }
+        return labels;
+    }
+}
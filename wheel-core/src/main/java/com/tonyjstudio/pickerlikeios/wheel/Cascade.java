@@ -0,0 +1,248 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Data of wheels chained one after the other, the items of each wheel depend on the items selected in the wheels
+ * before it, like country, region and city. The positions selected so far form the path; the data of a level
+ * for a path is requested from a {@link Loader} and kept in an LRU cache of at most maxEntries paths, so a
+ * selection seen before is shown at once. A load overtaken by a newer selection is cancelled: it is skipped
+ * if it has not started, its result is cached but not shown otherwise. Used from one thread, the loader
+ * may load on another thread and hand the data back on this one.
+ */
+public final class Cascade<T> {
+
+    /*
+     * Loads the data of a level, {@link #onLoaded} or {@link #onFailed} must follow every load started,
+     * a load no longer {@link #isCurrent} may be skipped without either
+     */
+    public interface Loader {
+        /**
+         * start loading the data of a level
+         * @param level index of the wheel, from 1
+         * @param path positions selected in the wheels before it, not to be modified
+         * @param generation of the request, see {@link #isCurrent}
+         */
+        void load(int level, int[] path, int generation);
+    }
+
+    /*
+     * Shows the data of a level, called on the thread using the cascade
+     */
+    public interface Listener<T> {
+        /**
+         * the data of a level changed to the data of the selected path
+         */
+        void onLevelData(int level, T data);
+    }
+
+    private final int levels;
+    private final Loader loader;
+    private final Listener<T> listener;
+    private final Map<Key, T> cache;
+    private final int[] path;
+    // bumped when the path a level waits for changes, read by loaders on other threads
+    private final AtomicIntegerArray generations;
+    // path of the load a level waits for, null when none
+    private final int[][] pending;
+    // the pending data is shown when it arrives, a prefetch is only cached
+    private final boolean[] pendingShown;
+    // path of the data a level shows, null before the first
+    private final int[][] shown;
+
+    /**
+     * @param levels number of wheels, the first one has fixed data
+     * @param maxEntries data sets kept in the cache, over all levels
+     */
+    public Cascade(int levels, final int maxEntries, Loader loader, Listener<T> listener) {
+        if (levels < 1 || maxEntries <= 0) {
+            throw new IllegalArgumentException("levels and maxEntries must be positive");
+        }
+        this.levels = levels;
+        this.loader = loader;
+        this.listener = listener;
+        cache = new LinkedHashMap<Key, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, T> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        path = new int[levels];
+        generations = new AtomicIntegerArray(levels);
+        pending = new int[levels][];
+        pendingShown = new boolean[levels];
+        shown = new int[levels][];
+    }
+
+    public int getLevelCount() {
+        return levels;
+    }
+
+    /**
+     * positions selected in every wheel, a copy
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    /**
+     * a wheel settled on a position: the next wheel shows the data of the new path, from the cache or once loaded,
+     * loads of the wheels after it for other paths are cancelled
+     * @param level index of the wheel
+     * @param position
+     */
+    public void select(int level, int position) {
+        path[level] = position;
+        if (level + 1 >= levels) {
+            return;
+        }
+        for (int deeper = level + 2; deeper < levels; deeper++) {
+            if (pending[deeper] != null && !startsWith(pending[deeper], level + 1)) {
+                cancel(deeper);
+            }
+        }
+        request(level + 1, Arrays.copyOf(path, level + 1), true);
+    }
+
+    /**
+     * a wheel scrolls past a position: the data of the next wheel for it is loaded into the cache ahead of
+     * the wheel settling, replacing the load of the previous position
+     * @param level index of the wheel
+     * @param position item in the middle of the wheel
+     */
+    public void preview(int level, int position) {
+        if (level + 1 >= levels) {
+            return;
+        }
+        int[] previewPath = Arrays.copyOf(path, level + 1);
+        previewPath[level] = position;
+        request(level + 1, previewPath, false);
+    }
+
+    /*
+     * show the data of a path from the cache, or wait for the load already running for it, or start one
+     */
+    private void request(int level, int[] requestPath, boolean show) {
+        if (Arrays.equals(shown[level], requestPath)) {
+            if (show) {
+                // back on the shown data, a load for another path is no longer wanted
+                cancel(level);
+            }
+            return;
+        }
+        T data = cache.get(new Key(requestPath));
+        if (data != null) {
+            if (show) {
+                cancel(level);
+                show(level, requestPath, data);
+            }
+            return;
+        }
+        if (Arrays.equals(pending[level], requestPath)) {
+            pendingShown[level] |= show;
+            return;
+        }
+        int generation = generations.incrementAndGet(level);
+        pending[level] = requestPath;
+        pendingShown[level] = show;
+        loader.load(level, requestPath, generation);
+    }
+
+    /*
+     * whether a path starts with the first positions of the selected path
+     */
+    private boolean startsWith(int[] other, int length) {
+        for (int i = 0; i < length; i++) {
+            if (other[i] != path[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void show(int level, int[] dataPath, T data) {
+        shown[level] = dataPath;
+        listener.onLevelData(level, data);
+    }
+
+    private void cancel(int level) {
+        if (pending[level] != null) {
+            generations.incrementAndGet(level);
+            pending[level] = null;
+        }
+    }
+
+    /**
+     * whether a load is still wanted, loaders check it before starting; may be called from any thread
+     * @param generation passed to {@link Loader#load}
+     */
+    public boolean isCurrent(int level, int generation) {
+        return generations.get(level) == generation;
+    }
+
+    /**
+     * data of a load, cached for its path and shown if the wheel still waits for it
+     * @param path passed to {@link Loader#load}
+     * @param generation passed to {@link Loader#load}
+     */
+    public void onLoaded(int level, int[] path, int generation, T data) {
+        cache.put(new Key(path), data);
+        if (isCurrent(level, generation) && pending[level] != null) {
+            boolean show = pendingShown[level];
+            pending[level] = null;
+            if (show) {
+                show(level, path, data);
+            }
+        }
+    }
+
+    /**
+     * a load failed or was skipped, the level can request the same path again
+     */
+    public void onFailed(int level, int generation) {
+        if (isCurrent(level, generation)) {
+            pending[level] = null;
+        }
+    }
+
+    /**
+     * drop the cached data and cancel all loads, call when the data behind the wheels changed
+     */
+    public void clear() {
+        cache.clear();
+        for (int level = 0; level < levels; level++) {
+            cancel(level);
+            shown[level] = null;
+        }
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    /*
+     * Path as a cache key
+     */
+    private static final class Key {
+        private final int[] path;
+        private final int hash;
+
+        Key(int[] path) {
+            this.path = path;
+            hash = Arrays.hashCode(path);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(path, ((Key) o).path);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import java.util.List;
+
+/**
+ * Difference between two item lists as one replaced range: the items before and after it are equal in both lists.
+ * The range is found by trimming the common head and tail, so a wheel updated from one list to the next only
+ * remaps the positions after the range and re-renders the items inside it. An edit in the middle of a long list
+ * costs the scan of the equal items once, nothing per item is measured or drawn again.
+ */
+public final class ItemDiff {
+
+    private final int start;
+    private final int removedCount;
+    private final int insertedCount;
+
+    public ItemDiff(int start, int removedCount, int insertedCount) {
+        this.start = start;
+        this.removedCount = removedCount;
+        this.insertedCount = insertedCount;
+    }
+
+    /**
+     * the range of oldItems to replace with a range of newItems, items are compared with equals
+     * @param oldItems
+     * @param newItems
+     */
+    public static ItemDiff between(List<?> oldItems, List<?> newItems) {
+        int oldSize = oldItems.size();
+        int newSize = newItems.size();
+        int head = 0;
+        int max = Math.min(oldSize, newSize);
+        while (head < max && equal(oldItems.get(head), newItems.get(head))) {
+            head++;
+        }
+        int tail = 0;
+        max -= head;
+        while (tail < max && equal(oldItems.get(oldSize - 1 - tail), newItems.get(newSize - 1 - tail))) {
+            tail++;
+        }
+        return new ItemDiff(head, oldSize - head - tail, newSize - head - tail);
+    }
+
+    /**
+     * position of an item after a range is replaced
+     * An item inside the removed range keeps its position when an inserted item takes it, otherwise it
+     * moves to the first item after the inserted range, the caller clamps that to the new last item.
+     * @param position position before the change
+     * @param start first replaced position
+     * @param removedCount items removed from start
+     * @param insertedCount items inserted at start
+     */
+    public static int mapPosition(int position, int start, int removedCount, int insertedCount) {
+        if (position < start) {
+            return position;
+        }
+        if (position >= start + removedCount) {
+            return position - removedCount + insertedCount;
+        }
+        return Math.min(position, start + insertedCount);
+    }
+
+    /**
+     * true when the item at the position is removed or replaced by the change
+     */
+    public static boolean isReplaced(int position, int start, int removedCount) {
+        return position >= start && position < start + removedCount;
+    }
+
+    /**
+     * first replaced position
+     */
+    public int getStart() {
+        return start;
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * true when both lists are equal
+     */
+    public boolean isEmpty() {
+        return removedCount == 0 && insertedCount == 0;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Item indices of the slots visible on the wheel, top slot first.
+ * The slot array is allocated when the visible count changes and refilled in place on every frame,
+ * slots past the ends of a non-loop wheel hold {@link #EMPTY}.
+ */
+public final class ItemWindow {
+
+    public static final int EMPTY = -1;
+
+    private int[] slots;
+
+    public ItemWindow(int visibleCount) {
+        slots = new int[visibleCount];
+    }
+
+    /**
+     * change the number of slots, reallocates only when the count differs
+     * @param visibleCount
+     */
+    public void resize(int visibleCount) {
+        if (visibleCount != slots.length) {
+            slots = new int[visibleCount];
+        }
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * item index shown in the slot, or {@link #EMPTY}
+     * @param slot
+     */
+    public int get(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * item drawn in the middle slot for a scroll offset, computed from the position alone
+     * @param totalScrollY scroll offset from the initial item, in pixels
+     * @param itemHeight height of one item, in pixels
+     * @param initPosition item shown at scroll offset 0
+     * @param itemCount number of items of the wheel
+     * @param loop wrap around the ends instead of clamping
+     */
+    public static int currentIndex(int totalScrollY, float itemHeight, int initPosition, int itemCount, boolean loop) {
+        return itemAt((int) (totalScrollY / itemHeight), initPosition, itemCount, loop);
+    }
+
+    /**
+     * item a number of items away from the initial one, always an item of the wheel
+     * The initial position may be past the count, for example after the items shrank, it is wrapped or clamped too.
+     * @param change items scrolled from the initial item, negative towards the first item
+     * @param initPosition item shown at scroll offset 0
+     * @param itemCount number of items of the wheel
+     * @param loop wrap around the ends instead of clamping
+     */
+    public static int itemAt(int change, int initPosition, int itemCount, boolean loop) {
+        long index = (long) initPosition + change;
+        if (loop) {
+            index %= itemCount;
+            return (int) (index < 0 ? index + itemCount : index);
+        }
+        return (int) Math.max(0, Math.min(itemCount - 1, index));
+    }
+
+    /**
+     * number of items to scroll from one item to another, a loop takes the shorter way around
+     * @param from item in the middle now
+     * @param to item to bring to the middle
+     * @param itemCount number of items of the wheel
+     * @param loop wrap around the ends
+     * @return items to scroll, negative towards the first item
+     */
+    public static int changeBetween(int from, int to, int itemCount, boolean loop) {
+        int change = to - from;
+        if (loop) {
+            if (change > itemCount / 2) {
+                change -= itemCount;
+            } else if (change < -(itemCount / 2)) {
+                change += itemCount;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * put the items around the current one into the slots
+     * @param currentIndex item drawn in the middle slot
+     * @param itemCount number of items of the wheel
+     * @param loop wrap around the ends instead of leaving empty slots
+     */
+    public void fill(int currentIndex, int itemCount, boolean loop) {
+        int half = slots.length / 2;
+        for (int slot = 0; slot < slots.length; slot++) {
+            int index = currentIndex - (half - slot);
+            if (loop) {
+                index %= itemCount;
+                if (index < 0) {
+                    index += itemCount;
+                }
+            } else if (index < 0 || index > itemCount - 1) {
+                index = EMPTY;
+            }
+            slots[slot] = index;
+        }
+    }
+}
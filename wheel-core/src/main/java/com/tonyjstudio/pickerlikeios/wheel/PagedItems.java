@@ -0,0 +1,250 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Items of a large data set held as pages around the part of the wheel being shown.
+ * The wheel reports the item in the middle and its scroll velocity, the pages from there to where the
+ * scroll is heading are requested from a {@link Loader}. At most maxPages pages are kept, a loaded page
+ * past the cap evicts the page farthest from the requested range. Used from one thread, the loader
+ * may load on another thread and hand the page back on this one.
+ */
+public final class PagedItems<T> {
+
+    /*
+     * Loads pages, {@link #onPageLoaded} or {@link #onPageFailed} must follow every call
+     */
+    public interface Loader {
+        /**
+         * start loading a page
+         * @param page index of the page
+         * @param start position of its first item
+         * @param count number of items of the page
+         */
+        void loadPage(int page, int start, int count);
+    }
+
+    private final int pageSize;
+    private final int maxPages;
+    private final Loader loader;
+
+    private int itemCount;
+    private boolean loop;
+    private Object[] pages = new Object[0];
+    private boolean[] pending = new boolean[0];
+    private int loadedCount;
+    // pages requested last, never evicted
+    private int firstWanted;
+    private int lastWanted = -1;
+
+    /**
+     * @param pageSize items per page
+     * @param maxPages pages kept in memory, at least the pages of the visible items
+     */
+    public PagedItems(int pageSize, int maxPages, Loader loader) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("pageSize and maxPages must be positive");
+        }
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.loader = loader;
+    }
+
+    /**
+     * drop all pages and start over with a new item count, pages loading for the old count are ignored
+     * @param itemCount
+     */
+    public void reset(int itemCount) {
+        this.itemCount = itemCount;
+        int pageCount = (itemCount + pageSize - 1) / pageSize;
+        pages = new Object[pageCount];
+        pending = new boolean[pageCount];
+        loadedCount = 0;
+        firstWanted = 0;
+        lastWanted = -1;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    public int getLoadedPageCount() {
+        return loadedCount;
+    }
+
+    public int pageOf(int position) {
+        return position / pageSize;
+    }
+
+    public boolean isLoaded(int page) {
+        return pages[page] != null;
+    }
+
+    /**
+     * item at a position, or null when its page is not loaded
+     * @param position
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int position) {
+        int page = position / pageSize;
+        List<T> items = (List<T>) pages[page];
+        return items == null ? null : items.get(position - page * pageSize);
+    }
+
+    /**
+     * request the pages around the middle item and towards where the wheel is heading
+     * @param center item in the middle of the wheel
+     * @param radius items shown on each side of the middle one
+     * @param itemsPerSecond scroll velocity, positive towards the last item
+     * @param lookaheadSeconds how far ahead of the velocity to load, the time a fling takes to stop
+     * @param loop the wheel wraps around its ends
+     */
+    public void request(int center, int radius, float itemsPerSecond, float lookaheadSeconds, boolean loop) {
+        if (pages.length == 0) {
+            return;
+        }
+        this.loop = loop;
+        int ahead = (int) (itemsPerSecond * lookaheadSeconds);
+        int first = center - radius + Math.min(0, ahead);
+        int last = center + radius + Math.max(0, ahead);
+        int firstPage = floorDiv(first, pageSize);
+        int lastPage = floorDiv(last, pageSize);
+        if (!loop) {
+            firstPage = Math.max(0, firstPage);
+            lastPage = Math.min(pages.length - 1, lastPage);
+        }
+        // keep the range within the cap, the pages farthest ahead of the scroll are trimmed
+        if (lastPage - firstPage + 1 > maxPages) {
+            if (ahead < 0) {
+                firstPage = lastPage - maxPages + 1;
+            } else {
+                lastPage = firstPage + maxPages - 1;
+            }
+        }
+        if (lastPage - firstPage + 1 > pages.length) {
+            lastPage = firstPage + pages.length - 1;
+        }
+        firstWanted = firstPage;
+        lastWanted = lastPage;
+
+        // the pages of the middle item first, then in the scroll direction
+        int centerPage = Math.max(firstPage, Math.min(lastPage, floorDiv(center, pageSize)));
+        requestPage(centerPage);
+        int step = ahead < 0 ? -1 : 1;
+        for (int page = centerPage + step; page >= firstPage && page <= lastPage; page += step) {
+            requestPage(page);
+        }
+        for (int page = centerPage - step; page >= firstPage && page <= lastPage; page -= step) {
+            requestPage(page);
+        }
+    }
+
+    /**
+     * load the page of one item read outside the requested range, the requested range and the loop stay as
+     * they are, so the page is the first evicted when it is far from them
+     * @param position
+     */
+    public void requestItem(int position) {
+        if (position >= 0 && position < itemCount) {
+            requestPage(position / pageSize);
+        }
+    }
+
+    private void requestPage(int page) {
+        int index = wrap(page);
+        if (pages[index] != null || pending[index]) {
+            return;
+        }
+        pending[index] = true;
+        int start = index * pageSize;
+        loader.loadPage(index, start, Math.min(pageSize, itemCount - start));
+    }
+
+    /**
+     * store a loaded page, evicting the farthest page when over the cap
+     * @param page
+     * @param items the items of the page, in order
+     */
+    public void onPageLoaded(int page, List<T> items) {
+        if (page >= pages.length || !pending[page]) {
+            // requested before a reset
+            return;
+        }
+        pending[page] = false;
+        pages[page] = items;
+        loadedCount++;
+        while (loadedCount > maxPages) {
+            evictFarthest();
+        }
+    }
+
+    /**
+     * a page could not be loaded, it is requested again the next time it is wanted
+     * @param page
+     */
+    public void onPageFailed(int page) {
+        if (page < pending.length) {
+            pending[page] = false;
+        }
+    }
+
+    /**
+     * drop all loaded pages, for example on low memory
+     */
+    public void evictAll() {
+        Arrays.fill(pages, null);
+        loadedCount = 0;
+    }
+
+    private void evictFarthest() {
+        int farthest = -1;
+        int farthestDistance = -1;
+        for (int page = 0; page < pages.length; page++) {
+            if (pages[page] != null) {
+                int distance = distanceToWanted(page);
+                if (distance > farthestDistance) {
+                    farthest = page;
+                    farthestDistance = distance;
+                }
+            }
+        }
+        pages[farthest] = null;
+        loadedCount--;
+    }
+
+    /*
+     * pages between a page and the requested range, 0 inside it
+     */
+    private int distanceToWanted(int page) {
+        if (lastWanted < firstWanted) {
+            return 0;
+        }
+        int first = wrap(firstWanted);
+        int last = wrap(lastWanted);
+        if (wrap(page - first) <= lastWanted - firstWanted) {
+            return 0;
+        }
+        int toFirst = Math.abs(page - first);
+        int toLast = Math.abs(page - last);
+        if (loop) {
+            toFirst = Math.min(toFirst, pages.length - toFirst);
+            toLast = Math.min(toLast, pages.length - toLast);
+        }
+        return Math.min(toFirst, toLast);
+    }
+
+    private int wrap(int page) {
+        int index = page % pages.length;
+        return index < 0 ? index + pages.length : index;
+    }
+
+    private static int floorDiv(int value, int divisor) {
+        int quotient = value / divisor;
+        return value % divisor < 0 ? quotient - 1 : quotient;
+    }
+}
@@ -0,0 +1,181 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Sorted index of item labels for typeahead, finds the first item whose label starts with a prefix.
+ * Labels are compared ignoring case. The index is immutable once built, so it is built on a background
+ * thread and handed to the UI thread as a whole; a lookup is two binary searches for the keys starting with
+ * the prefix plus a range minimum query over their positions. An edit of the items is patched into a copy.
+ */
+public final class PrefixIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    // lower-cased labels in sorted order, equal labels in item order
+    private final String[] keys;
+    // item position of each key
+    private final int[] positions;
+    // segment tree of the lowest position over ranges of keys, node i covers nodes 2i and 2i + 1,
+    // the leaves from keys.length on are the positions
+    private final int[] minPositions;
+
+    private PrefixIndex(String[] keys, int[] positions) {
+        this.keys = keys;
+        this.positions = positions;
+        int size = keys.length;
+        minPositions = new int[2 * size];
+        System.arraycopy(positions, 0, minPositions, size, size);
+        for (int i = size - 1; i > 0; i--) {
+            minPositions[i] = Math.min(minPositions[2 * i], minPositions[2 * i + 1]);
+        }
+    }
+
+    /**
+     * index the labels, a null label is never found
+     * @param labels label of each item, in item order
+     */
+    public static PrefixIndex build(String[] labels) {
+        String[] keys = new String[labels.length];
+        int[] positions = new int[labels.length];
+        sort(labels, 0, keys, positions);
+        return new PrefixIndex(keys, positions);
+    }
+
+    /**
+     * index of the items after a range is replaced, this index is not changed
+     * Costs a pass over the keys and the sort of the inserted labels, no other label is read again.
+     * @param start first replaced position
+     * @param removedCount items removed from start
+     * @param inserted labels of the items inserted at start
+     */
+    public PrefixIndex replace(int start, int removedCount, String[] inserted) {
+        int end = start + removedCount;
+        if (start < 0 || removedCount < 0 || end > keys.length) {
+            throw new IllegalArgumentException("range " + start + "+" + removedCount + " out of " + keys.length);
+        }
+        String[] insertedKeys = new String[inserted.length];
+        int[] insertedPositions = new int[inserted.length];
+        sort(inserted, start, insertedKeys, insertedPositions);
+        int size = keys.length - removedCount + inserted.length;
+        String[] newKeys = new String[size];
+        int[] newPositions = new int[size];
+        int shift = inserted.length - removedCount;
+        int next = 0;
+        int nextInserted = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int position = positions[i];
+            if (position >= start && position < end) {
+                continue;
+            }
+            if (position >= end) {
+                position += shift;
+            }
+            // merge, equal keys stay in item order
+            while (nextInserted < inserted.length && before(insertedKeys[nextInserted],
+                    insertedPositions[nextInserted], keys[i], position)) {
+                newKeys[next] = insertedKeys[nextInserted];
+                newPositions[next++] = insertedPositions[nextInserted++];
+            }
+            newKeys[next] = keys[i];
+            newPositions[next++] = position;
+        }
+        while (nextInserted < inserted.length) {
+            newKeys[next] = insertedKeys[nextInserted];
+            newPositions[next++] = insertedPositions[nextInserted++];
+        }
+        return new PrefixIndex(newKeys, newPositions);
+    }
+
+    /*
+     * normalized labels in sorted order into keys, with the positions from firstPosition on
+     */
+    private static void sort(String[] labels, int firstPosition, String[] keys, int[] positions) {
+        final String[] normalized = new String[labels.length];
+        Integer[] order = new Integer[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            normalized[i] = labels[i] == null ? "" : normalize(labels[i]);
+            order[i] = i;
+        }
+        // merge sort is stable, equal labels stay in item order
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return normalized[a].compareTo(normalized[b]);
+            }
+        });
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = normalized[order[i]];
+            positions[i] = firstPosition + order[i];
+        }
+    }
+
+    private static boolean before(String key, int position, String otherKey, int otherPosition) {
+        int order = key.compareTo(otherKey);
+        return order < 0 || order == 0 && position < otherPosition;
+    }
+
+    /**
+     * lowest item position whose label starts with the prefix, ignoring case
+     * @param prefix typed text, an empty prefix matches nothing
+     * @return the position or {@link #NOT_FOUND}
+     */
+    public int find(CharSequence prefix) {
+        if (prefix.length() == 0) {
+            return NOT_FOUND;
+        }
+        String key = normalize(prefix);
+        int low = 0;
+        int high = keys.length;
+        // first key not below the prefix, the keys starting with it follow
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int first = low;
+        high = keys.length;
+        // first key past the ones starting with the prefix
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(key)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return first == low ? NOT_FOUND : minPosition(first, low);
+    }
+
+    /*
+     * lowest position of the keys from index from to index to, excluded
+     */
+    private int minPosition(int from, int to) {
+        int min = Integer.MAX_VALUE;
+        for (from += keys.length, to += keys.length; from < to; from >>>= 1, to >>>= 1) {
+            if ((from & 1) == 1) {
+                min = Math.min(min, minPositions[from++]);
+            }
+            if ((to & 1) == 1) {
+                min = Math.min(min, minPositions[--to]);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * number of indexed labels
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    private static String normalize(CharSequence text) {
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,97 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Scroll position over time with exponential friction.
+ * The position is y(t) = start + (final - start) * (1 - e^(-t / timeConstant)), a function of elapsed
+ * time only, so the motion is the same at any frame rate. The final position is fixed when the curve
+ * starts: a fling picks the item boundary closest to where friction alone would stop the wheel.
+ */
+public final class ScrollCurve {
+
+    // time constant of a fling, the distance of a fling is velocity * time constant
+    public static final float FLING_TIME_CONSTANT = 0.325f;
+    // time constant of a snap, matches the former step of a tenth of the remaining offset every 10 ms
+    public static final float SNAP_TIME_CONSTANT = 0.095f;
+    // the curve ends when less than this many pixels are left
+    private static final float END_DISTANCE = 0.5f;
+    private static final float NANOS_PER_SECOND = 1e9f;
+
+    private int startY;
+    private int finalY;
+    private double timeConstantNanos;
+    private long durationNanos;
+
+    /**
+     * move from startY to finalY
+     * @param timeConstant seconds for the remaining distance to shrink by a factor e
+     */
+    public void start(int startY, int finalY, float timeConstant) {
+        this.startY = startY;
+        this.finalY = finalY;
+        timeConstantNanos = timeConstant * (double) NANOS_PER_SECOND;
+        int distance = Math.abs(finalY - startY);
+        if (distance <= END_DISTANCE) {
+            durationNanos = 0;
+        } else {
+            durationNanos = (long) (timeConstantNanos * Math.log(distance / END_DISTANCE));
+        }
+    }
+
+    /**
+     * fling from startY and stop on an item boundary
+     * @param velocity scroll velocity in pixels per second
+     * @param itemHeight distance between two item boundaries, boundaries are multiples of it
+     * @param minY lowest final position
+     * @param maxY highest final position
+     */
+    public void fling(int startY, float velocity, float itemHeight, int minY, int maxY) {
+        float naturalY = startY + velocity * FLING_TIME_CONSTANT;
+        int target = (int) (Math.round(naturalY / itemHeight) * itemHeight);
+        if (target < minY) {
+            target = minY;
+        } else if (target > maxY) {
+            target = maxY;
+        }
+        start(startY, target, FLING_TIME_CONSTANT);
+    }
+
+    /**
+     * position after some time, the final position once the curve has ended
+     * @param elapsedNanos time since the start
+     */
+    public int positionAt(long elapsedNanos) {
+        if (elapsedNanos >= durationNanos) {
+            return finalY;
+        }
+        if (elapsedNanos <= 0) {
+            return startY;
+        }
+        double remaining = Math.exp(-elapsedNanos / timeConstantNanos);
+        return (int) Math.round(finalY - (finalY - startY) * remaining);
+    }
+
+    /**
+     * velocity after some time, 0 once the curve has ended
+     * @param elapsedNanos time since the start
+     * @return pixels per second, positive towards higher positions
+     */
+    public float velocityAt(long elapsedNanos) {
+        if (elapsedNanos >= durationNanos) {
+            return 0f;
+        }
+        double remaining = Math.exp(-Math.max(0, elapsedNanos) / timeConstantNanos);
+        return (float) ((finalY - startY) * remaining / timeConstantNanos * NANOS_PER_SECOND);
+    }
+
+    public boolean isFinished(long elapsedNanos) {
+        return elapsedNanos >= durationNanos;
+    }
+
+    public int getFinalY() {
+        return finalY;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+}
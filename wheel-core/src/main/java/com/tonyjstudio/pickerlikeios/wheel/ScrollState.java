@@ -0,0 +1,115 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scroll offset and initial position of a wheel, published together as one atomic snapshot.
+ * The picker only changes the state on its UI thread, any thread may read a snapshot and always sees
+ * an offset with the initial position it belongs to. Updates are compare-and-set loops, so a
+ * relative scroll is never lost to a concurrent update.
+ */
+public final class ScrollState {
+
+    // high 32 bits: initial position, low 32 bits: scroll offset
+    private final AtomicLong state = new AtomicLong(pack(-1, 0));
+
+    /**
+     * current state, read its parts with {@link #scrollY(long)} and {@link #initPosition(long)}
+     */
+    public long snapshot() {
+        return state.get();
+    }
+
+    public static int scrollY(long snapshot) {
+        return (int) snapshot;
+    }
+
+    public static int initPosition(long snapshot) {
+        return (int) (snapshot >> 32);
+    }
+
+    public int getScrollY() {
+        return scrollY(state.get());
+    }
+
+    public int getInitPosition() {
+        return initPosition(state.get());
+    }
+
+    /**
+     * move to an absolute offset, keeps the initial position
+     * @param scrollY
+     */
+    public void setScrollY(int scrollY) {
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, pack(initPosition(current), scrollY)));
+    }
+
+    /**
+     * move by an offset, keeping the result between minY and maxY
+     * @param dy
+     * @param minY
+     * @param maxY
+     * @return the new offset
+     */
+    public int scrollBy(int dy, int minY, int maxY) {
+        long current;
+        int scrollY;
+        do {
+            current = state.get();
+            long moved = (long) scrollY(current) + dy;
+            scrollY = (int) Math.max(minY, Math.min(maxY, moved));
+        } while (!state.compareAndSet(current, pack(initPosition(current), scrollY)));
+        return scrollY;
+    }
+
+    /**
+     * show an item at offset 0
+     * @param initPosition
+     */
+    public void reset(int initPosition) {
+        state.set(pack(initPosition, 0));
+    }
+
+    /**
+     * show an item at an offset, both are published together
+     * @param initPosition
+     * @param scrollY
+     */
+    public void reset(int initPosition, int scrollY) {
+        state.set(pack(initPosition, scrollY));
+    }
+
+    /**
+     * change the initial position and keep the offset
+     * @param initPosition
+     */
+    public void setInitPosition(int initPosition) {
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, pack(initPosition, scrollY(current))));
+    }
+
+    /**
+     * set the initial position if none is set yet
+     * @param initPosition
+     * @return the initial position in effect
+     */
+    public int initPositionIfUnset(int initPosition) {
+        long current;
+        do {
+            current = state.get();
+            if (initPosition(current) != -1) {
+                return initPosition(current);
+            }
+        } while (!state.compareAndSet(current, pack(initPosition, scrollY(current))));
+        return initPosition;
+    }
+
+    private static long pack(int initPosition, int scrollY) {
+        return ((long) initPosition << 32) | (scrollY & 0xffffffffL);
+    }
+}
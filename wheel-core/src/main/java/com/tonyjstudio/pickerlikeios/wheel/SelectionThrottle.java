@@ -0,0 +1,93 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Coalesces the live item of a scrolling wheel into at most one event per interval.
+ * An item is delivered at once when the interval since the last delivery has passed, otherwise it is kept
+ * pending and replaced by newer items, so the receiver never gets a stale item after a newer one.
+ * An item equal to the last delivered one is never delivered twice in a row.
+ */
+public final class SelectionThrottle {
+
+    public static final int NONE = -1;
+
+    private long intervalNanos;
+    private int deliveredIndex = NONE;
+    private long deliveredNanos;
+    private int pendingIndex = NONE;
+
+    /**
+     * @param intervalNanos shortest time between two deliveries, 0 delivers every change
+     */
+    public SelectionThrottle(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    public void setInterval(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * offer the current item
+     * @return the item to deliver now, or {@link #NONE}
+     */
+    public int offer(int index, long nowNanos) {
+        if (index == deliveredIndex) {
+            pendingIndex = NONE;
+            return NONE;
+        }
+        if (deliveredIndex == NONE || nowNanos - deliveredNanos >= intervalNanos) {
+            return deliver(index, nowNanos);
+        }
+        pendingIndex = index;
+        return NONE;
+    }
+
+    /**
+     * time until the pending item may be delivered
+     * @return nanoseconds, or -1 when nothing is pending
+     */
+    public long pendingDelay(long nowNanos) {
+        if (pendingIndex == NONE) {
+            return -1;
+        }
+        return Math.max(0, intervalNanos - (nowNanos - deliveredNanos));
+    }
+
+    /**
+     * the pending item if its interval has passed
+     * @return the item to deliver now, or {@link #NONE}
+     */
+    public int poll(long nowNanos) {
+        if (pendingIndex == NONE || nowNanos - deliveredNanos < intervalNanos) {
+            return NONE;
+        }
+        return deliver(pendingIndex, nowNanos);
+    }
+
+    /**
+     * the item the wheel came to rest on, delivered regardless of the interval
+     * @return the item to deliver now, or {@link #NONE} when it was the last one delivered
+     */
+    public int settle(int index, long nowNanos) {
+        pendingIndex = NONE;
+        if (index == deliveredIndex) {
+            return NONE;
+        }
+        return deliver(index, nowNanos);
+    }
+
+    /**
+     * forget the delivered item, call when the items change
+     */
+    public void reset() {
+        deliveredIndex = NONE;
+        pendingIndex = NONE;
+    }
+
+    private int deliver(int index, long nowNanos) {
+        deliveredIndex = index;
+        deliveredNanos = nowNanos;
+        pendingIndex = NONE;
+        return index;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Canvas operations a {@link WheelPainter} issues to draw a wheel column.
+ * The view implements it over its Android canvas; tests and benchmarks record the operations instead.
+ * Coordinates are in pixels, a clip intersects the current clip like on an Android canvas.
+ */
+public interface WheelCanvas {
+
+    void save();
+
+    void restore();
+
+    void clipRect(int left, int top, int right, int bottom);
+
+    void translate(float dx, float dy);
+
+    void scale(float sx, float sy);
+
+    /**
+     * draw the label of an item at the current origin, the label's baseline is at the text height
+     * @param item item index or {@link ItemWindow#EMPTY}
+     * @param center draw with the center paint instead of the outer one
+     */
+    void drawItem(int item, boolean center);
+}
@@ -0,0 +1,114 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Precomputed position of the slots on the wheel.
+ * For every slot and every whole-pixel scroll offset inside an item, the table holds the
+ * translation, vertical scale and divider band of the item, so drawing a frame needs no trigonometry.
+ * The table is rebuilt only when one of its inputs changes.
+ */
+public final class WheelGeometry {
+
+    // slot is behind the wheel and not drawn
+    public static final byte BAND_HIDDEN = 0;
+    // slot is outside the dividers
+    public static final byte BAND_OUTER = 1;
+    // slot crosses the first divider line
+    public static final byte BAND_CROSS_FIRST = 2;
+    // slot crosses the second divider line
+    public static final byte BAND_CROSS_SECOND = 3;
+    // slot is between the dividers
+    public static final byte BAND_CENTER = 4;
+
+    private int visibleCount;
+    private float itemHeight;
+    private int maxTextHeight;
+    private int halfCircumference;
+    private int radius;
+    private int firstLineY;
+    private int secondLineY;
+
+    // offsets run from -maxOffset to maxOffset
+    private int maxOffset;
+    private int samples;
+    private int[] translateY = new int[0];
+    private float[] scale = new float[0];
+    private byte[] band = new byte[0];
+
+    /**
+     * compute the table, does nothing when the inputs are those of the current table
+     * @return true when the table was rebuilt
+     */
+    public boolean build(int visibleCount, float itemHeight, int maxTextHeight, int halfCircumference, int radius,
+                         int firstLineY, int secondLineY) {
+        if (visibleCount == this.visibleCount && itemHeight == this.itemHeight
+                && maxTextHeight == this.maxTextHeight && halfCircumference == this.halfCircumference
+                && radius == this.radius && firstLineY == this.firstLineY && secondLineY == this.secondLineY) {
+            return false;
+        }
+        this.visibleCount = visibleCount;
+        this.itemHeight = itemHeight;
+        this.maxTextHeight = maxTextHeight;
+        this.halfCircumference = halfCircumference;
+        this.radius = radius;
+        this.firstLineY = firstLineY;
+        this.secondLineY = secondLineY;
+
+        maxOffset = (int) Math.ceil(itemHeight);
+        samples = 2 * maxOffset + 1;
+        int size = visibleCount * samples;
+        if (translateY.length != size) {
+            translateY = new int[size];
+            scale = new float[size];
+            band = new byte[size];
+        }
+        for (int slot = 0; slot < visibleCount; slot++) {
+            for (int offset = -maxOffset; offset <= maxOffset; offset++) {
+                computeEntry(slot * samples + offset + maxOffset, slot, offset);
+            }
+        }
+        return true;
+    }
+
+    private void computeEntry(int entry, int slot, int offset) {
+        double radian = ((itemHeight * slot - offset) * Math.PI) / halfCircumference;
+        if (radian >= Math.PI || radian <= 0) {
+            translateY[entry] = 0;
+            scale[entry] = 0f;
+            band[entry] = BAND_HIDDEN;
+            return;
+        }
+        int y = (int) (radius - Math.cos(radian) * radius - (Math.sin(radian) * maxTextHeight) / 2D);
+        translateY[entry] = y;
+        scale[entry] = (float) Math.sin(radian);
+        if (y <= firstLineY && maxTextHeight + y >= firstLineY) {
+            band[entry] = BAND_CROSS_FIRST;
+        } else if (y <= secondLineY && maxTextHeight + y >= secondLineY) {
+            band[entry] = BAND_CROSS_SECOND;
+        } else if (y >= firstLineY && maxTextHeight + y <= secondLineY) {
+            band[entry] = BAND_CENTER;
+        } else {
+            band[entry] = BAND_OUTER;
+        }
+    }
+
+    /**
+     * entry of a slot in the table
+     * @param slot index of the slot, 0 is the top one
+     * @param offset scroll offset inside the current item, within one item height
+     */
+    public int entry(int slot, int offset) {
+        return slot * samples + offset + maxOffset;
+    }
+
+    public int translateY(int entry) {
+        return translateY[entry];
+    }
+
+    public float scale(int entry) {
+        return scale[entry];
+    }
+
+    public byte band(int entry) {
+        return band[entry];
+    }
+}
@@ -0,0 +1,183 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Layout of a wheel, independent of any view or canvas.
+ * The layout sizes the items from the wheel height, turns a scroll position into the draw commands of a
+ * frame, keeps a non-loop wheel inside its items and maps taps and releases to the distance to scroll.
+ * A renderer measures the layout, then calls {@link #layout(long, int, boolean, WheelState)} once per frame
+ * and draws the commands.
+ */
+public final class WheelLayout {
+
+    private final WheelGeometry geometry = new WheelGeometry();
+    private final ItemWindow window;
+
+    private int visibleCount;
+    private float lineSpacingMultiplier;
+
+    private int height;
+    private int maxTextHeight;
+    private float itemHeight;
+    private int halfCircumference;
+    private int radius;
+    private int firstLineY;
+    private int secondLineY;
+
+    /**
+     * @param visibleCount number of slots, an odd number
+     * @param lineSpacingMultiplier item height as a multiple of the text height, more than 1
+     */
+    public WheelLayout(int visibleCount, float lineSpacingMultiplier) {
+        this.visibleCount = visibleCount;
+        this.lineSpacingMultiplier = lineSpacingMultiplier;
+        window = new ItemWindow(visibleCount);
+    }
+
+    public void setVisibleCount(int visibleCount) {
+        this.visibleCount = visibleCount;
+        window.resize(visibleCount);
+        measure(height);
+    }
+
+    public void setLineSpacingMultiplier(float lineSpacingMultiplier) {
+        this.lineSpacingMultiplier = lineSpacingMultiplier;
+        measure(height);
+    }
+
+    /**
+     * size the items for a wheel height, the half circumference of the wheel holds the visible items
+     * @param height height of the wheel in pixels, a height of 0 keeps the previous sizes
+     * @return true when the layout has sizes
+     */
+    public boolean measure(int height) {
+        if (height <= 0) {
+            return isMeasured();
+        }
+        this.height = height;
+        halfCircumference = (int) (height * Math.PI / 2);
+        maxTextHeight = (int) (halfCircumference / (lineSpacingMultiplier * (visibleCount - 1)));
+        itemHeight = lineSpacingMultiplier * maxTextHeight;
+        radius = height / 2;
+        firstLineY = (int) ((height - itemHeight) / 2.0F);
+        secondLineY = (int) ((height + itemHeight) / 2.0F);
+        geometry.build(visibleCount, itemHeight, maxTextHeight, halfCircumference, radius, firstLineY, secondLineY);
+        return isMeasured();
+    }
+
+    public boolean isMeasured() {
+        return maxTextHeight > 0;
+    }
+
+    /**
+     * fill the draw commands for a scroll position
+     * @param scroll snapshot of the scroll state, see {@link ScrollState#snapshot()}
+     * @param itemCount number of items, more than 0
+     * @param loop wrap around the ends instead of leaving empty slots
+     * @param state receives the commands
+     */
+    public void layout(long scroll, int itemCount, boolean loop, WheelState state) {
+        int scrollY = ScrollState.scrollY(scroll);
+        int currentIndex = ItemWindow.currentIndex(scrollY, itemHeight, ScrollState.initPosition(scroll),
+                itemCount, loop);
+        int offset = (int) (scrollY % itemHeight);
+        window.fill(currentIndex, itemCount, loop);
+        state.begin(visibleCount, currentIndex, offset);
+        for (int slot = 0; slot < visibleCount; slot++) {
+            int entry = geometry.entry(slot, offset);
+            byte band = geometry.band(entry);
+            if (band != WheelGeometry.BAND_HIDDEN) {
+                state.add(slot, window.get(slot), geometry.translateY(entry), geometry.scale(entry), band);
+            }
+        }
+    }
+
+    /**
+     * item closest to the middle of the wheel, the selected item once the wheel rests
+     * @param scroll snapshot of the scroll state
+     * @param itemCount number of items, more than 0
+     * @param loop wrap around the ends instead of clamping
+     */
+    public int selectedIndex(long scroll, int itemCount, boolean loop) {
+        int change = Math.round(ScrollState.scrollY(scroll) / itemHeight);
+        return ItemWindow.itemAt(change, ScrollState.initPosition(scroll), itemCount, loop);
+    }
+
+    /**
+     * lowest scroll offset, the first item of a non-loop wheel is then in the middle
+     */
+    public int minScrollY(int initPosition, boolean loop) {
+        if (loop) {
+            return Integer.MIN_VALUE;
+        }
+        return (int) (-initPosition * itemHeight);
+    }
+
+    /**
+     * highest scroll offset, the last item of a non-loop wheel is then in the middle
+     */
+    public int maxScrollY(int initPosition, int itemCount, boolean loop) {
+        if (loop) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) ((itemCount - 1 - initPosition) * itemHeight);
+    }
+
+    /**
+     * distance from a scroll offset to the closest item boundary
+     * @param scrollY
+     */
+    public int snapDistance(int scrollY) {
+        int offset = (int) ((scrollY % itemHeight + itemHeight) % itemHeight);
+        if ((float) offset > itemHeight / 2.0F) {
+            return (int) (itemHeight - (float) offset);
+        }
+        return -offset;
+    }
+
+    /**
+     * distance that brings the item under a tap to the middle
+     * @param y position of the tap from the top of the wheel
+     * @param scrollY current scroll offset
+     */
+    public int tapDistance(float y, int scrollY) {
+        // arc length from the top of the wheel down to the tap
+        double arc = Math.acos((radius - y) / radius) * radius;
+        int slot = (int) ((arc + itemHeight / 2) / itemHeight);
+        float extraOffset = (scrollY % itemHeight + itemHeight) % itemHeight;
+        return (int) ((slot - visibleCount / 2) * itemHeight - extraOffset);
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * height of the text of an item, labels are drawn on this baseline
+     */
+    public int getMaxTextHeight() {
+        return maxTextHeight;
+    }
+
+    /**
+     * distance between two items along the wheel
+     */
+    public float getItemHeight() {
+        return itemHeight;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getFirstLineY() {
+        return firstLineY;
+    }
+
+    public int getSecondLineY() {
+        return secondLineY;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Draws the commands of a {@link WheelState} frame onto a {@link WheelCanvas}.
+ * {@link #paintInBands} is the pipeline views use: the outer items are drawn in two passes clipped once to the
+ * regions above and below the dividers, the center items in one pass clipped once to the band between them,
+ * so a frame takes three clips whatever the number of items. {@link #paintPerItem} is the former pipeline,
+ * with a save, clip and restore per item and two more per item crossing a divider, kept as the reference.
+ */
+public final class WheelPainter {
+
+    // passes of paintInBands, top to bottom
+    private static final int PASS_ABOVE = 0;
+    private static final int PASS_CENTER = 1;
+    private static final int PASS_BELOW = 2;
+
+    private WheelPainter() {
+    }
+
+    /**
+     * draw a frame with one clip per band, the colour changes exactly on the divider lines
+     * @param left left edge of the column
+     * @param right right edge of the column
+     */
+    public static void paintInBands(WheelState state, WheelLayout layout, int left, int right, WheelCanvas canvas) {
+        int firstLineY = layout.getFirstLineY();
+        int secondLineY = layout.getSecondLineY();
+        paintPass(state, PASS_ABOVE, firstLineY, left, 0, right, firstLineY, canvas);
+        paintPass(state, PASS_CENTER, firstLineY, left, firstLineY, right, secondLineY, canvas);
+        paintPass(state, PASS_BELOW, firstLineY, left, secondLineY, right, layout.getHeight(), canvas);
+    }
+
+    /*
+     * draw the commands of one band under a single clip
+     */
+    private static void paintPass(WheelState state, int pass, int firstLineY, int left, int top, int right,
+                                  int bottom, WheelCanvas canvas) {
+        canvas.save();
+        canvas.clipRect(left, top, right, bottom);
+        // the canvas moves from one item to the next relative to the previous one, the restore undoes it all
+        float originY = 0f;
+        float originScale = 1f;
+        for (int i = 0; i < state.getCount(); i++) {
+            if (!inPass(pass, state.getBand(i), state.getTranslateY(i), firstLineY)) {
+                continue;
+            }
+            float scale = state.getScale(i);
+            if (scale <= 0f) {
+                continue;
+            }
+            int translateY = state.getTranslateY(i);
+            canvas.translate(0.0F, (translateY - originY) / originScale);
+            canvas.scale(1.0F, scale / originScale);
+            originY = translateY;
+            originScale = scale;
+            canvas.drawItem(state.getItem(i), pass == PASS_CENTER);
+        }
+        canvas.restore();
+    }
+
+    private static boolean inPass(int pass, byte band, int translateY, int firstLineY) {
+        switch (pass) {
+            case PASS_ABOVE:
+                return band == WheelGeometry.BAND_CROSS_FIRST
+                        || band == WheelGeometry.BAND_OUTER && translateY < firstLineY;
+            case PASS_CENTER:
+                return band != WheelGeometry.BAND_OUTER;
+            default:
+                return band == WheelGeometry.BAND_CROSS_SECOND
+                        || band == WheelGeometry.BAND_OUTER && translateY >= firstLineY;
+        }
+    }
+
+    /**
+     * draw a frame with one saved and clipped canvas per item, the former pipeline
+     * @param left left edge of the column
+     * @param right right edge of the column
+     */
+    public static void paintPerItem(WheelState state, WheelLayout layout, int left, int right, WheelCanvas canvas) {
+        int firstLineY = layout.getFirstLineY();
+        int secondLineY = layout.getSecondLineY();
+        int itemHeight = (int) layout.getItemHeight();
+        for (int i = 0; i < state.getCount(); i++) {
+            canvas.save();
+            int item = state.getItem(i);
+            int translateY = state.getTranslateY(i);
+            canvas.translate(0.0F, translateY);
+            canvas.scale(1.0F, state.getScale(i));
+            byte band = state.getBand(i);
+            if (band == WheelGeometry.BAND_CROSS_FIRST) {
+                canvas.save();
+                canvas.clipRect(left, 0, right, firstLineY - translateY);
+                canvas.drawItem(item, false);
+                canvas.restore();
+                canvas.save();
+                canvas.clipRect(left, firstLineY - translateY, right, itemHeight);
+                canvas.drawItem(item, true);
+                canvas.restore();
+            } else if (band == WheelGeometry.BAND_CROSS_SECOND) {
+                canvas.save();
+                canvas.clipRect(left, 0, right, secondLineY - translateY);
+                canvas.drawItem(item, true);
+                canvas.restore();
+                canvas.save();
+                canvas.clipRect(left, secondLineY - translateY, right, itemHeight);
+                canvas.drawItem(item, false);
+                canvas.restore();
+            } else {
+                canvas.clipRect(left, 0, right, itemHeight);
+                canvas.drawItem(item, band == WheelGeometry.BAND_CENTER);
+            }
+            canvas.restore();
+        }
+    }
+}
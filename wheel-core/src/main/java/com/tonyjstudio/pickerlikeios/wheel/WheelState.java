@@ -0,0 +1,106 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+/**
+ * Draw commands of one frame of the wheel, filled by {@link WheelLayout#layout(long, int, boolean, WheelState)}.
+ * There is one command per slot that is in front of the wheel, top slot first. A command tells which item
+ * to draw, where to translate and how much to scale it, and which divider band it is in.
+ * The arrays are reused from frame to frame and only grow when the visible count grows.
+ */
+public final class WheelState {
+
+    private int currentIndex;
+    private int offset;
+    private int count;
+    private int centerCommand = -1;
+
+    private int[] slot = new int[0];
+    private int[] item = new int[0];
+    private int[] translateY = new int[0];
+    private float[] scale = new float[0];
+    private byte[] band = new byte[0];
+
+    /*
+     * drop the commands of the previous frame
+     */
+    void begin(int capacity, int currentIndex, int offset) {
+        if (slot.length < capacity) {
+            slot = new int[capacity];
+            item = new int[capacity];
+            translateY = new int[capacity];
+            scale = new float[capacity];
+            band = new byte[capacity];
+        }
+        this.currentIndex = currentIndex;
+        this.offset = offset;
+        count = 0;
+        centerCommand = -1;
+    }
+
+    void add(int slot, int item, int translateY, float scale, byte band) {
+        this.slot[count] = slot;
+        this.item[count] = item;
+        this.translateY[count] = translateY;
+        this.scale[count] = scale;
+        this.band[count] = band;
+        if (band == WheelGeometry.BAND_CENTER) {
+            centerCommand = count;
+        }
+        count++;
+    }
+
+    /**
+     * item in the middle slot
+     */
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    /**
+     * scroll offset inside the current item, between minus and plus one item height
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * number of commands
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * command drawn between the dividers, or -1 when the wheel is between two items
+     */
+    public int getCenterCommand() {
+        return centerCommand;
+    }
+
+    public int getSlot(int command) {
+        return slot[command];
+    }
+
+    /**
+     * item index to draw, or {@link ItemWindow#EMPTY} past the ends of a non-loop wheel
+     * @param command
+     */
+    public int getItem(int command) {
+        return item[command];
+    }
+
+    public int getTranslateY(int command) {
+        return translateY[command];
+    }
+
+    public float getScale(int command) {
+        return scale[command];
+    }
+
+    /**
+     * one of the band constants of {@link WheelGeometry}, never {@link WheelGeometry#BAND_HIDDEN}
+     * @param command
+     */
+    public byte getBand(int command) {
+        return band[command];
+    }
+}
@@ -0,0 +1,214 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the cascade of dependent wheels.
+ */
+public class CascadeTest {
+
+    /*
+     * Records the requested loads, answers only when the test says so
+     */
+    private static final class RecordingLoader implements Cascade.Loader {
+        final List<int[]> requests = new ArrayList<>();
+
+        @Override
+        public void load(int level, int[] path, int generation) {
+            requests.add(new int[]{level, generation});
+            requests.add(path);
+        }
+
+        int count() {
+            return requests.size() / 2;
+        }
+
+        int level(int request) {
+            return requests.get(2 * request)[0];
+        }
+
+        int generation(int request) {
+            return requests.get(2 * request)[1];
+        }
+
+        int[] path(int request) {
+            return requests.get(2 * request + 1);
+        }
+
+        /*
+         * answer a request with data naming its path, as a loader would
+         */
+        void answer(Cascade<String> cascade, int request) {
+            cascade.onLoaded(level(request), path(request), generation(request), data(path(request)));
+        }
+    }
+
+    /*
+     * Records the data shown per level
+     */
+    private static final class RecordingListener implements Cascade.Listener<String> {
+        final List<String> shown = new ArrayList<>();
+
+        @Override
+        public void onLevelData(int level, String data) {
+            shown.add(level + ":" + data);
+        }
+    }
+
+    private static String data(int[] path) {
+        return Arrays.toString(path);
+    }
+
+    @Test
+    public void select_loadsOnceThenShowsFromTheCache() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(3, 16, loader, listener);
+
+        cascade.select(0, 4);
+        assertEquals(1, loader.count());
+        assertArrayEquals(new int[]{4}, loader.path(0));
+        assertTrue(listener.shown.isEmpty());
+        loader.answer(cascade, 0);
+        assertEquals(Arrays.asList("1:[4]"), listener.shown);
+
+        cascade.select(0, 5);
+        loader.answer(cascade, 1);
+        // back to a parent seen before: shown at once, nothing loaded
+        cascade.select(0, 4);
+        assertEquals(2, loader.count());
+        assertEquals(Arrays.asList("1:[4]", "1:[5]", "1:[4]"), listener.shown);
+    }
+
+    @Test
+    public void select_sameSelectionShowsNothingNew() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 16, loader, listener);
+        cascade.select(0, 1);
+        loader.answer(cascade, 0);
+        cascade.select(0, 1);
+        assertEquals(1, loader.count());
+        assertEquals(1, listener.shown.size());
+    }
+
+    @Test
+    public void newerSelection_cancelsTheStaleLoad() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 16, loader, listener);
+        cascade.select(0, 1);
+        cascade.select(0, 2);
+        cascade.select(0, 3);
+        assertEquals(3, loader.count());
+        assertFalse(cascade.isCurrent(1, loader.generation(0)));
+        assertFalse(cascade.isCurrent(1, loader.generation(1)));
+        assertTrue(cascade.isCurrent(1, loader.generation(2)));
+
+        // a stale load that ran anyway is cached, not shown
+        loader.answer(cascade, 1);
+        assertTrue(listener.shown.isEmpty());
+        loader.answer(cascade, 2);
+        assertEquals(Arrays.asList("1:[3]"), listener.shown);
+        cascade.select(0, 2);
+        assertEquals(3, loader.count());
+        assertEquals(Arrays.asList("1:[3]", "1:[2]"), listener.shown);
+    }
+
+    @Test
+    public void preview_prefetchesWithoutShowing() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 16, loader, listener);
+        cascade.preview(0, 7);
+        cascade.preview(0, 8);
+        assertEquals(2, loader.count());
+        assertFalse(cascade.isCurrent(1, loader.generation(0)));
+        loader.answer(cascade, 1);
+        assertTrue(listener.shown.isEmpty());
+
+        // settles where it was prefetched: shown from the cache within the same call
+        cascade.select(0, 8);
+        assertEquals(2, loader.count());
+        assertEquals(Arrays.asList("1:[8]"), listener.shown);
+    }
+
+    @Test
+    public void select_joinsTheRunningPrefetch() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 16, loader, listener);
+        cascade.preview(0, 3);
+        cascade.select(0, 3);
+        assertEquals(1, loader.count());
+        assertTrue(cascade.isCurrent(1, loader.generation(0)));
+        loader.answer(cascade, 0);
+        assertEquals(Arrays.asList("1:[3]"), listener.shown);
+    }
+
+    @Test
+    public void deeperLevels_followTheirParent() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(3, 16, loader, listener);
+        cascade.select(0, 1);
+        loader.answer(cascade, 0);
+        cascade.select(1, 2);
+        assertEquals(2, loader.level(1));
+        assertArrayEquals(new int[]{1, 2}, loader.path(1));
+
+        // the top wheel settles again on the same item, the load below it is still wanted
+        cascade.select(0, 1);
+        assertTrue(cascade.isCurrent(2, loader.generation(1)));
+        // it moves, the load below is for a path no longer selected
+        cascade.select(0, 5);
+        assertFalse(cascade.isCurrent(2, loader.generation(1)));
+        assertArrayEquals(new int[]{5, 2, 0}, cascade.getPath());
+    }
+
+    @Test
+    public void cache_evictsTheLeastRecentlyUsedPath() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 2, loader, listener);
+        for (int position = 0; position < 3; position++) {
+            cascade.select(0, position);
+            loader.answer(cascade, position);
+        }
+        assertEquals(2, cascade.getCachedCount());
+        cascade.select(0, 0);
+        assertEquals(4, loader.count());
+        cascade.select(0, 2);
+        assertEquals(4, loader.count());
+    }
+
+    @Test
+    public void failedLoad_canBeRequestedAgain() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 16, loader, listener);
+        cascade.select(0, 1);
+        cascade.onFailed(1, loader.generation(0));
+        cascade.select(0, 1);
+        assertEquals(2, loader.count());
+    }
+
+    @Test
+    public void clear_loadsAgain() {
+        RecordingLoader loader = new RecordingLoader();
+        RecordingListener listener = new RecordingListener();
+        Cascade<String> cascade = new Cascade<>(2, 16, loader, listener);
+        cascade.select(0, 1);
+        loader.answer(cascade, 0);
+        cascade.clear();
+        assertEquals(0, cascade.getCachedCount());
+        cascade.select(0, 1);
+        assertEquals(2, loader.count());
+    }
+}
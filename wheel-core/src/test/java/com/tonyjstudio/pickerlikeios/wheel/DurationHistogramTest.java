@@ -0,0 +1,63 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the duration histogram.
+ */
+public class DurationHistogramTest {
+
+    @Test
+    public void buckets_coverValuesWithoutGaps() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 16666666, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = DurationHistogram.bucket(value);
+            assertTrue(DurationHistogram.lowestValue(bucket) <= value);
+            assertTrue(DurationHistogram.highestValue(bucket) >= value);
+        }
+        for (int bucket = 1; bucket < DurationHistogram.bucket(Long.MAX_VALUE); bucket++) {
+            assertEquals(DurationHistogram.highestValue(bucket - 1) + 1, DurationHistogram.lowestValue(bucket));
+        }
+    }
+
+    @Test
+    public void percentiles_withinBucketError() {
+        Random random = new Random(7);
+        DurationHistogram histogram = new DurationHistogram();
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            // frame times from about 1 to 50 ms
+            values[i] = 1000000L + (long) (Math.abs(random.nextGaussian()) * 8000000L) % 49000000L;
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        for (double percentile : new double[]{50, 95, 99}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(reported >= exact);
+            assertTrue(reported <= exact + exact / 16);
+        }
+    }
+
+    @Test
+    public void empty_andReset() {
+        DurationHistogram histogram = new DurationHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMean());
+        histogram.record(5);
+        histogram.record(-3);
+        assertEquals(2, histogram.getCount());
+        assertEquals(5, histogram.getPercentile(100));
+        assertEquals(0, histogram.getPercentile(50));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
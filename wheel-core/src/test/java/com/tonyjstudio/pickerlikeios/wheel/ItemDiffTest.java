@@ -0,0 +1,92 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the item list difference.
+ */
+public class ItemDiffTest {
+
+    @Test
+    public void between_insertInMiddle() {
+        ItemDiff diff = ItemDiff.between(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "y", "b", "c"));
+        assertEquals(1, diff.getStart());
+        assertEquals(0, diff.getRemovedCount());
+        assertEquals(2, diff.getInsertedCount());
+    }
+
+    @Test
+    public void between_removeAtEnd() {
+        ItemDiff diff = ItemDiff.between(Arrays.asList("28", "29", "30", "31"), Arrays.asList("28", "29"));
+        assertEquals(2, diff.getStart());
+        assertEquals(2, diff.getRemovedCount());
+        assertEquals(0, diff.getInsertedCount());
+    }
+
+    @Test
+    public void between_equalListsIsEmpty() {
+        assertTrue(ItemDiff.between(Arrays.asList("a", "b"), Arrays.asList("a", "b")).isEmpty());
+        assertTrue(ItemDiff.between(new ArrayList<String>(), new ArrayList<String>()).isEmpty());
+    }
+
+    @Test
+    public void between_repeatedItemsDoNotOverlapHeadAndTail() {
+        ItemDiff diff = ItemDiff.between(Arrays.asList("a", "a"), Arrays.asList("a", "a", "a"));
+        assertEquals(1, diff.getInsertedCount());
+        assertEquals(0, diff.getRemovedCount());
+        assertEquals(2, diff.getStart());
+    }
+
+    @Test
+    public void mapPosition_followsTheItem() {
+        // a b c d e -> a x d e
+        assertEquals(0, ItemDiff.mapPosition(0, 1, 2, 1));
+        assertEquals(2, ItemDiff.mapPosition(3, 1, 2, 1));
+        assertEquals(3, ItemDiff.mapPosition(4, 1, 2, 1));
+        // b is replaced in place by x, c goes to the item after x
+        assertEquals(1, ItemDiff.mapPosition(1, 1, 2, 1));
+        assertEquals(2, ItemDiff.mapPosition(2, 1, 2, 1));
+        assertTrue(ItemDiff.isReplaced(2, 1, 2));
+        assertFalse(ItemDiff.isReplaced(3, 1, 2));
+    }
+
+    @Test
+    public void between_randomEditsRebuildNewList() {
+        Random random = new Random(17);
+        for (int run = 0; run < 2000; run++) {
+            List<Integer> oldItems = randomList(random);
+            List<Integer> newItems = randomList(random);
+            ItemDiff diff = ItemDiff.between(oldItems, newItems);
+
+            List<Integer> patched = new ArrayList<>(oldItems);
+            patched.subList(diff.getStart(), diff.getStart() + diff.getRemovedCount()).clear();
+            patched.addAll(diff.getStart(),
+                    newItems.subList(diff.getStart(), diff.getStart() + diff.getInsertedCount()));
+            assertEquals(newItems, patched);
+
+            // every item outside the range is found at its mapped position
+            for (int i = 0; i < oldItems.size(); i++) {
+                if (!ItemDiff.isReplaced(i, diff.getStart(), diff.getRemovedCount())) {
+                    int mapped = ItemDiff.mapPosition(i, diff.getStart(), diff.getRemovedCount(), diff.getInsertedCount());
+                    assertEquals(oldItems.get(i), newItems.get(mapped));
+                }
+            }
+        }
+    }
+
+    private static List<Integer> randomList(Random random) {
+        int size = random.nextInt(12);
+        List<Integer> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(random.nextInt(4));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,152 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.AbstractList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the visible item window.
+ */
+public class ItemWindowTest {
+
+    @Test
+    public void fill_loopWrapsAroundEnds() {
+        ItemWindow window = new ItemWindow(5);
+        window.fill(0, 10, true);
+        assertArrayEquals(new int[]{8, 9, 0, 1, 2}, slots(window));
+        window.fill(9, 10, true);
+        assertArrayEquals(new int[]{7, 8, 9, 0, 1}, slots(window));
+    }
+
+    @Test
+    public void fill_loopShorterThanWindow() {
+        ItemWindow window = new ItemWindow(9);
+        window.fill(1, 3, true);
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 2, 0, 1, 2}, slots(window));
+    }
+
+    @Test
+    public void fill_notLoopLeavesEmptySlots() {
+        ItemWindow window = new ItemWindow(5);
+        window.fill(0, 10, false);
+        assertArrayEquals(new int[]{ItemWindow.EMPTY, ItemWindow.EMPTY, 0, 1, 2}, slots(window));
+        window.fill(9, 10, false);
+        assertArrayEquals(new int[]{7, 8, 9, ItemWindow.EMPTY, ItemWindow.EMPTY}, slots(window));
+    }
+
+    @Test
+    public void resize_sameCountKeepsSlots() {
+        ItemWindow window = new ItemWindow(5);
+        window.fill(3, 10, true);
+        window.resize(5);
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, slots(window));
+        window.resize(7);
+        assertEquals(7, window.size());
+    }
+
+    @Test
+    public void currentIndex_followsScrollOffset() {
+        assertEquals(5, ItemWindow.currentIndex(0, 40f, 5, 10, true));
+        assertEquals(7, ItemWindow.currentIndex(95, 40f, 5, 10, true));
+        assertEquals(2, ItemWindow.currentIndex(-130, 40f, 5, 10, true));
+        assertEquals(1, ItemWindow.currentIndex(240, 40f, 5, 10, true));
+        assertEquals(9, ItemWindow.currentIndex(-240, 40f, 5, 10, true));
+    }
+
+    @Test
+    public void currentIndex_notLoopClampsToEnds() {
+        assertEquals(0, ItemWindow.currentIndex(-280, 40f, 5, 10, false));
+        assertEquals(9, ItemWindow.currentIndex(200, 40f, 5, 10, false));
+    }
+
+    @Test
+    public void itemAt_initPositionPastCountStaysOnTheWheel() {
+        assertEquals(0, ItemWindow.itemAt(0, 100, 10, true));
+        assertEquals(8, ItemWindow.itemAt(-12, 100, 10, true));
+        assertEquals(9, ItemWindow.itemAt(0, 100, 10, false));
+        assertEquals(0, ItemWindow.itemAt(-200, 100, 10, false));
+        assertEquals(4, ItemWindow.itemAt(Integer.MAX_VALUE, Integer.MAX_VALUE, 5, true));
+    }
+
+    @Test
+    public void changeBetween_loopTakesShorterWay() {
+        assertEquals(3, ItemWindow.changeBetween(2, 5, 10, true));
+        assertEquals(-3, ItemWindow.changeBetween(1, 8, 10, true));
+        assertEquals(3, ItemWindow.changeBetween(8, 1, 10, true));
+        assertEquals(-7, ItemWindow.changeBetween(8, 1, 10, false));
+        for (int from = 0; from < 7; from++) {
+            for (int to = 0; to < 7; to++) {
+                int change = ItemWindow.changeBetween(from, to, 7, true);
+                assertTrue(Math.abs(change) <= 3);
+                assertEquals(to, ItemWindow.itemAt(change, from, 7, true));
+            }
+        }
+    }
+
+    @Test
+    public void composeFrames_readLabelsOfTheWindowOnly() {
+        // time and allocation per frame are measured by FrameCompositionBenchmark, here the reads are counted
+        CountingLabels small = new CountingLabels(10);
+        CountingLabels large = new CountingLabels(1000000);
+        composeFrames(small, 1000);
+        composeFrames(large, 1000);
+        assertEquals(1000 * 9, small.reads);
+        assertEquals(small.reads, large.reads);
+        assertEquals(0, large.farReads);
+    }
+
+    /*
+     * Index work of onDraw: current item from the scroll offset, visible slots, labels of the slots
+     */
+    private static void composeFrames(CountingLabels items, int frames) {
+        ItemWindow window = new ItemWindow(9);
+        int initPosition = (items.size() + 1) / 2;
+        for (int frame = 0; frame < frames; frame++) {
+            int currentIndex = ItemWindow.currentIndex(frame * 7, 40f, initPosition, items.size(), true);
+            items.center = currentIndex;
+            window.fill(currentIndex, items.size(), true);
+            for (int slot = 0; slot < window.size(); slot++) {
+                assertNotNull(items.get(window.get(slot)));
+            }
+        }
+    }
+
+    /*
+     * Labels made up on read, counting the reads and those further from the current item than half a window
+     */
+    private static final class CountingLabels extends AbstractList<String> {
+        private final int count;
+        int center;
+        int reads;
+        int farReads;
+
+        CountingLabels(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public String get(int index) {
+            reads++;
+            int distance = Math.abs(index - center);
+            if (Math.min(distance, count - distance) > 4) {
+                farReads++;
+            }
+            return "Item " + index;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private static int[] slots(ItemWindow window) {
+        int[] slots = new int[window.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = window.get(i);
+        }
+        return slots;
+    }
+}
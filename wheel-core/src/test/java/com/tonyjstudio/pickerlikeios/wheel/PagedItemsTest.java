@@ -0,0 +1,149 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the paged item window.
+ */
+public class PagedItemsTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    /*
+     * Records the requested pages, answers only when the test says so
+     */
+    private static final class RecordingLoader implements PagedItems.Loader {
+        final List<Integer> requested = new ArrayList<>();
+
+        @Override
+        public void loadPage(int page, int start, int count) {
+            requested.add(page);
+        }
+    }
+
+    private static List<String> page(int page, int count) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add("Row " + (page * PAGE_SIZE + i));
+        }
+        return items;
+    }
+
+    @Test
+    public void request_loadsVisiblePagesOnce() {
+        RecordingLoader loader = new RecordingLoader();
+        PagedItems<String> items = new PagedItems<>(PAGE_SIZE, 8, loader);
+        items.reset(1000);
+        items.request(28, 4, 0f, 0f, false);
+        assertEquals(2, loader.requested.size());
+        assertEquals(Integer.valueOf(2), loader.requested.get(0));
+        assertTrue(loader.requested.contains(3));
+        // pending pages are not requested again
+        items.request(29, 4, 0f, 0f, false);
+        assertEquals(2, loader.requested.size());
+
+        assertNull(items.get(25));
+        items.onPageLoaded(2, page(2, PAGE_SIZE));
+        assertEquals("Row 25", items.get(25));
+        assertNull(items.get(31));
+    }
+
+    @Test
+    public void request_prefetchesInScrollDirection() {
+        RecordingLoader loader = new RecordingLoader();
+        PagedItems<String> items = new PagedItems<>(PAGE_SIZE, 20, loader);
+        items.reset(1000);
+        // 200 items per second for 0.325 s is 65 items ahead
+        items.request(500, 4, 200f, ScrollCurve.FLING_TIME_CONSTANT, false);
+        assertEquals(Integer.valueOf(50), loader.requested.get(0));
+        assertEquals(Integer.valueOf(51), loader.requested.get(1));
+        assertTrue(loader.requested.contains(56));
+        assertFalse(loader.requested.contains(58));
+        assertTrue(loader.requested.contains(49));
+        assertFalse(loader.requested.contains(48));
+
+        loader.requested.clear();
+        items.request(500, 4, -200f, ScrollCurve.FLING_TIME_CONSTANT, false);
+        // 50 and 49 are still loading
+        assertEquals(Integer.valueOf(48), loader.requested.get(0));
+        assertTrue(loader.requested.contains(43));
+        assertFalse(loader.requested.contains(42));
+    }
+
+    @Test
+    public void request_notLoopStopsAtEnds_loopWraps() {
+        RecordingLoader loader = new RecordingLoader();
+        PagedItems<String> items = new PagedItems<>(PAGE_SIZE, 8, loader);
+        items.reset(95);
+        items.request(2, 4, 0f, 0f, false);
+        assertEquals(1, loader.requested.size());
+        assertEquals(Integer.valueOf(0), loader.requested.get(0));
+
+        loader.requested.clear();
+        items.reset(95);
+        items.request(2, 4, 0f, 0f, true);
+        assertEquals(2, loader.requested.size());
+        assertTrue(loader.requested.contains(9));
+    }
+
+    @Test
+    public void onPageLoaded_evictsFarthestPageOverCap() {
+        RecordingLoader loader = new RecordingLoader();
+        PagedItems<String> items = new PagedItems<>(PAGE_SIZE, 3, loader);
+        items.reset(1000);
+        for (int center = 5; center <= 45; center += 10) {
+            items.request(center, 2, 0f, 0f, false);
+            int page = center / PAGE_SIZE;
+            items.onPageLoaded(page, page(page, PAGE_SIZE));
+            assertTrue(items.getLoadedPageCount() <= 3);
+            assertTrue(items.isLoaded(page));
+        }
+        assertFalse(items.isLoaded(0));
+        assertFalse(items.isLoaded(1));
+        assertTrue(items.isLoaded(2));
+        assertTrue(items.isLoaded(3));
+    }
+
+    @Test
+    public void requestItem_keepsTheRequestedRange() {
+        RecordingLoader loader = new RecordingLoader();
+        PagedItems<String> items = new PagedItems<>(PAGE_SIZE, 3, loader);
+        items.reset(1000);
+        items.request(55, 12, 0f, 0f, false);
+        items.requestItem(95);
+        assertEquals(Integer.valueOf(9), loader.requested.get(3));
+        items.requestItem(97);
+        assertEquals(4, loader.requested.size());
+        for (int page : new int[]{4, 5, 6, 9}) {
+            items.onPageLoaded(page, page(page, PAGE_SIZE));
+        }
+        // the item read outside the range goes first, the range did not move to it
+        assertFalse(items.isLoaded(9));
+        assertTrue(items.isLoaded(4));
+        assertTrue(items.isLoaded(5));
+        assertTrue(items.isLoaded(6));
+    }
+
+    @Test
+    public void reset_ignoresPagesOfOldCount() {
+        RecordingLoader loader = new RecordingLoader();
+        PagedItems<String> items = new PagedItems<>(PAGE_SIZE, 4, loader);
+        items.reset(100);
+        items.request(50, 2, 0f, 0f, false);
+        items.reset(100);
+        items.onPageLoaded(5, page(5, PAGE_SIZE));
+        assertFalse(items.isLoaded(5));
+        assertEquals(0, items.getLoadedPageCount());
+        // a failed page is requested again
+        items.request(50, 2, 0f, 0f, false);
+        items.onPageFailed(5);
+        items.request(50, 2, 0f, 0f, false);
+        assertEquals(5, loader.requested.size());
+        assertEquals(Integer.valueOf(5), loader.requested.get(4));
+    }
+}
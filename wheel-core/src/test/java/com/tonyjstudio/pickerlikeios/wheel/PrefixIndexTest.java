@@ -0,0 +1,108 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the typeahead prefix index.
+ */
+public class PrefixIndexTest {
+
+    private static final String[] COUNTRIES = {
+            "Germany", "Austria", "Switzerland", "Belgium", "Bulgaria", "austria", "Brazil", "Sweden", null
+    };
+
+    @Test
+    public void find_firstItemWithPrefixIgnoringCase() {
+        PrefixIndex index = PrefixIndex.build(COUNTRIES);
+        assertEquals(3, index.find("B"));
+        assertEquals(4, index.find("bu"));
+        assertEquals(1, index.find("aUs"));
+        assertEquals(7, index.find("swe"));
+        assertEquals(2, index.find("Switzerland"));
+    }
+
+    @Test
+    public void find_noMatch() {
+        PrefixIndex index = PrefixIndex.build(COUNTRIES);
+        assertEquals(PrefixIndex.NOT_FOUND, index.find("x"));
+        assertEquals(PrefixIndex.NOT_FOUND, index.find("Switzerlands"));
+        assertEquals(PrefixIndex.NOT_FOUND, index.find(""));
+        assertEquals(PrefixIndex.NOT_FOUND, PrefixIndex.build(new String[0]).find("a"));
+    }
+
+    @Test
+    public void find_matchesLinearScan() {
+        Random random = new Random(5);
+        String[] labels = new String[5000];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = word(random, 1 + random.nextInt(6));
+        }
+        PrefixIndex index = PrefixIndex.build(labels);
+        assertEquals(labels.length, index.size());
+        for (int run = 0; run < 2000; run++) {
+            String prefix = word(random, 1 + random.nextInt(3));
+            int expected = PrefixIndex.NOT_FOUND;
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i].toLowerCase().startsWith(prefix.toLowerCase())) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals(prefix, expected, index.find(prefix));
+        }
+    }
+
+    @Test
+    public void replace_matchesIndexBuiltFromTheEditedLabels() {
+        Random random = new Random(9);
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            labels.add(word(random, 1 + random.nextInt(4)));
+        }
+        PrefixIndex index = PrefixIndex.build(labels.toArray(new String[0]));
+        for (int edit = 0; edit < 200; edit++) {
+            int start = random.nextInt(labels.size() + 1);
+            int removedCount = random.nextInt(Math.min(5, labels.size() - start) + 1);
+            String[] inserted = new String[random.nextInt(5)];
+            for (int i = 0; i < inserted.length; i++) {
+                inserted[i] = word(random, 1 + random.nextInt(4));
+            }
+            labels.subList(start, start + removedCount).clear();
+            labels.addAll(start, Arrays.asList(inserted));
+            index = index.replace(start, removedCount, inserted);
+
+            PrefixIndex rebuilt = PrefixIndex.build(labels.toArray(new String[0]));
+            assertEquals(labels.size(), index.size());
+            for (int run = 0; run < 20; run++) {
+                String prefix = word(random, 1 + random.nextInt(2));
+                assertEquals(prefix, rebuilt.find(prefix), index.find(prefix));
+            }
+        }
+    }
+
+    @Test
+    public void replace_leavesTheIndexUnchanged() {
+        PrefixIndex index = PrefixIndex.build(COUNTRIES);
+        PrefixIndex patched = index.replace(0, 3, new String[]{"Zambia"});
+        assertEquals(0, patched.find("z"));
+        assertEquals(1, patched.find("b"));
+        assertEquals(0, index.find("g"));
+        assertEquals(PrefixIndex.NOT_FOUND, index.find("z"));
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(5));
+            word.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return word.toString();
+    }
+}
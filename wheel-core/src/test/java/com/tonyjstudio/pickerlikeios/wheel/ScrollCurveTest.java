@@ -0,0 +1,92 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the fling and snap curve.
+ */
+public class ScrollCurveTest {
+
+    private static final float ITEM_HEIGHT = 58f;
+
+    @Test
+    public void fling_endsOnItemBoundary() {
+        ScrollCurve curve = new ScrollCurve();
+        curve.fling(13, 3000f, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        float natural = 13 + 3000f * ScrollCurve.FLING_TIME_CONSTANT;
+        assertEquals((int) (Math.round(natural / ITEM_HEIGHT) * ITEM_HEIGHT), curve.getFinalY());
+        assertEquals(curve.getFinalY(), curve.positionAt(curve.getDurationNanos()));
+
+        curve.fling(-13, -3000f, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        assertTrue(curve.getFinalY() < -13);
+        assertEquals(0f, curve.getFinalY() % ITEM_HEIGHT, 1f);
+    }
+
+    @Test
+    public void fling_clampedToBounds() {
+        ScrollCurve curve = new ScrollCurve();
+        curve.fling(0, 100000f, ITEM_HEIGHT, -116, 290);
+        assertEquals(290, curve.getFinalY());
+        curve.fling(0, -100000f, ITEM_HEIGHT, -116, 290);
+        assertEquals(-116, curve.getFinalY());
+    }
+
+    @Test
+    public void position_isSameAtAnyFrameRate() {
+        ScrollCurve curve = new ScrollCurve();
+        curve.fling(0, 4000f, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        int[] at60 = sample(curve, 60);
+        int[] at90 = sample(curve, 90);
+        int[] at120 = sample(curve, 120);
+        // frames of the three rates coincide every 1/30 s
+        for (int i = 0; i < at120.length / 4; i++) {
+            assertEquals(at60[2 * i], at120[4 * i]);
+            assertEquals(at90[3 * i], at120[4 * i]);
+        }
+    }
+
+    @Test
+    public void position_movesMonotonicallyAndStops() {
+        ScrollCurve curve = new ScrollCurve();
+        curve.start(100, -300, ScrollCurve.SNAP_TIME_CONSTANT);
+        int previous = 100;
+        for (long t = 0; !curve.isFinished(t); t += 1000000L) {
+            int y = curve.positionAt(t);
+            assertTrue(y <= previous);
+            previous = y;
+        }
+        assertEquals(-300, curve.positionAt(curve.getDurationNanos()));
+        assertTrue(curve.getDurationNanos() < 1000000000L);
+    }
+
+    @Test
+    public void velocity_coversRemainingDistanceInOneTimeConstant() {
+        ScrollCurve curve = new ScrollCurve();
+        curve.fling(0, 4000f, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        for (long t = 0; t < curve.getDurationNanos(); t += 50000000L) {
+            float remaining = curve.getFinalY() - curve.positionAt(t);
+            assertEquals(remaining, curve.velocityAt(t) * ScrollCurve.FLING_TIME_CONSTANT, 1f);
+        }
+        assertEquals(0f, curve.velocityAt(curve.getDurationNanos()), 0f);
+    }
+
+    @Test
+    public void start_noDistanceHasNoDuration() {
+        ScrollCurve curve = new ScrollCurve();
+        curve.start(42, 42, ScrollCurve.SNAP_TIME_CONSTANT);
+        assertEquals(0, curve.getDurationNanos());
+        assertTrue(curve.isFinished(0));
+        assertEquals(42, curve.positionAt(0));
+    }
+
+    private static int[] sample(ScrollCurve curve, int hz) {
+        int frames = (int) (curve.getDurationNanos() * hz / 1000000000L) + 1;
+        int[] positions = new int[frames];
+        for (int frame = 0; frame < frames; frame++) {
+            positions[frame] = curve.positionAt(frame * 1000000000L / hz);
+        }
+        return positions;
+    }
+}
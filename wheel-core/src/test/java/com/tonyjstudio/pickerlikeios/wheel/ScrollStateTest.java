@@ -0,0 +1,163 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the scroll state, including concurrent updates.
+ */
+public class ScrollStateTest {
+
+    private static final int THREADS = 4;
+    private static final int ITERATIONS = 200000;
+
+    @Test
+    public void snapshot_holdsBothParts() {
+        ScrollState state = new ScrollState();
+        assertEquals(-1, state.getInitPosition());
+        assertEquals(0, state.getScrollY());
+        state.reset(7);
+        state.setScrollY(-123456);
+        long snapshot = state.snapshot();
+        assertEquals(7, ScrollState.initPosition(snapshot));
+        assertEquals(-123456, ScrollState.scrollY(snapshot));
+        state.setInitPosition(Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, state.getInitPosition());
+        assertEquals(-123456, state.getScrollY());
+    }
+
+    @Test
+    public void scrollBy_clamps() {
+        ScrollState state = new ScrollState();
+        assertEquals(50, state.scrollBy(80, -20, 50));
+        assertEquals(-20, state.scrollBy(-500, -20, 50));
+        state.setScrollY(Integer.MAX_VALUE - 1);
+        assertEquals(Integer.MAX_VALUE, state.scrollBy(10, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void initPositionIfUnset_keepsFirstValue() {
+        ScrollState state = new ScrollState();
+        assertEquals(5, state.initPositionIfUnset(5));
+        assertEquals(5, state.initPositionIfUnset(9));
+    }
+
+    @Test
+    public void concurrentScrolls_loseNoUpdates() throws Exception {
+        final ScrollState state = new ScrollState();
+        state.reset(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[THREADS + 1];
+        for (int t = 0; t < THREADS; t++) {
+            final int step = t % 2 == 0 ? 3 : -1;
+            threads[t] = start(new Runnable() {
+                @Override
+                public void run() {
+                    await(start);
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        state.scrollBy(step, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                    }
+                }
+            }, failure);
+        }
+        // moves the initial position under the scrolling threads, it must keep their offsets
+        threads[THREADS] = start(new Runnable() {
+            @Override
+            public void run() {
+                await(start);
+                for (int i = 1; i <= ITERATIONS; i++) {
+                    state.setInitPosition(i);
+                }
+            }
+        }, failure);
+        start.countDown();
+        join(threads, failure);
+
+        assertEquals((THREADS / 2) * ITERATIONS * (3 - 1), state.getScrollY());
+        assertEquals(ITERATIONS, state.getInitPosition());
+    }
+
+    @Test
+    public void concurrentReset_snapshotsNeverTorn() throws Exception {
+        final ScrollState state = new ScrollState();
+        state.reset(1);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final boolean[] done = new boolean[1];
+        // like setCurrentPosition followed by a drag: each position only ever has offset 0 or its own value
+        Thread writer = start(new Runnable() {
+            @Override
+            public void run() {
+                await(start);
+                for (int position = 1; position <= ITERATIONS; position++) {
+                    state.reset(position);
+                    state.setScrollY(position);
+                }
+                synchronized (done) {
+                    done[0] = true;
+                }
+            }
+        }, failure);
+        Thread[] readers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            readers[t] = start(new Runnable() {
+                @Override
+                public void run() {
+                    await(start);
+                    int lastPosition = 0;
+                    while (true) {
+                        synchronized (done) {
+                            if (done[0]) {
+                                return;
+                            }
+                        }
+                        long snapshot = state.snapshot();
+                        int position = ScrollState.initPosition(snapshot);
+                        int scrollY = ScrollState.scrollY(snapshot);
+                        assertTrue("offset " + scrollY + " with position " + position,
+                                scrollY == 0 || scrollY == position);
+                        assertTrue(position >= lastPosition);
+                        lastPosition = position;
+                    }
+                }
+            }, failure);
+        }
+        start.countDown();
+        join(new Thread[]{writer}, failure);
+        join(readers, failure);
+    }
+
+    private static Thread start(Runnable runnable, final AtomicReference<Throwable> failure) {
+        Thread thread = new Thread(runnable);
+        thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void join(Thread[] threads, AtomicReference<Throwable> failure) throws Exception {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the scroll event throttle.
+ */
+public class SelectionThrottleTest {
+
+    private static final long MS = 1000000L;
+
+    @Test
+    public void zeroInterval_deliversEveryChangeOnce() {
+        SelectionThrottle throttle = new SelectionThrottle(0);
+        assertEquals(3, throttle.offer(3, 0));
+        assertEquals(SelectionThrottle.NONE, throttle.offer(3, 1));
+        assertEquals(4, throttle.offer(4, 1));
+        assertEquals(-1, throttle.pendingDelay(1));
+    }
+
+    @Test
+    public void interval_coalescesToLatestItem() {
+        SelectionThrottle throttle = new SelectionThrottle(50 * MS);
+        assertEquals(1, throttle.offer(1, 0));
+        assertEquals(SelectionThrottle.NONE, throttle.offer(2, 10 * MS));
+        assertEquals(SelectionThrottle.NONE, throttle.offer(3, 20 * MS));
+        assertEquals(30 * MS, throttle.pendingDelay(20 * MS));
+        assertEquals(SelectionThrottle.NONE, throttle.poll(40 * MS));
+        assertEquals(3, throttle.poll(50 * MS));
+        assertEquals(-1, throttle.pendingDelay(50 * MS));
+        assertEquals(4, throttle.offer(4, 100 * MS));
+    }
+
+    @Test
+    public void returnToDeliveredItem_dropsPending() {
+        SelectionThrottle throttle = new SelectionThrottle(50 * MS);
+        assertEquals(1, throttle.offer(1, 0));
+        assertEquals(SelectionThrottle.NONE, throttle.offer(2, 10 * MS));
+        assertEquals(SelectionThrottle.NONE, throttle.offer(1, 20 * MS));
+        assertEquals(SelectionThrottle.NONE, throttle.poll(60 * MS));
+        assertEquals(-1, throttle.pendingDelay(60 * MS));
+    }
+
+    @Test
+    public void settle_deliversRestItemBeforeInterval() {
+        SelectionThrottle throttle = new SelectionThrottle(50 * MS);
+        assertEquals(1, throttle.offer(1, 0));
+        assertEquals(SelectionThrottle.NONE, throttle.offer(4, 10 * MS));
+        assertEquals(5, throttle.settle(5, 12 * MS));
+        assertEquals(-1, throttle.pendingDelay(12 * MS));
+        assertEquals(SelectionThrottle.NONE, throttle.settle(5, 13 * MS));
+        throttle.reset();
+        assertEquals(5, throttle.offer(5, 14 * MS));
+    }
+}
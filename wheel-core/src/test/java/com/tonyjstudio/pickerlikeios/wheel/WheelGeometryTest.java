@@ -0,0 +1,64 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the wheel geometry table.
+ */
+public class WheelGeometryTest {
+
+    private static final int HEIGHT = 600;
+    private static final int VISIBLE = 9;
+    private static final float SPACING = 2f;
+
+    @Test
+    public void table_matchesDirectComputation() {
+        int halfCircumference = (int) (HEIGHT * Math.PI / 2);
+        int maxTextHeight = (int) (halfCircumference / (SPACING * (VISIBLE - 1)));
+        float itemHeight = SPACING * maxTextHeight;
+        int radius = HEIGHT / 2;
+        int firstLineY = (int) ((HEIGHT - itemHeight) / 2.0F);
+        int secondLineY = (int) ((HEIGHT + itemHeight) / 2.0F);
+        WheelGeometry geometry = new WheelGeometry();
+        geometry.build(VISIBLE, itemHeight, maxTextHeight, halfCircumference, radius, firstLineY, secondLineY);
+
+        int centerCount = 0;
+        for (int totalScrollY = -3 * HEIGHT; totalScrollY <= 3 * HEIGHT; totalScrollY++) {
+            int j2 = (int) (totalScrollY % itemHeight);
+            for (int slot = 0; slot < VISIBLE; slot++) {
+                int entry = geometry.entry(slot, j2);
+                double radian = ((itemHeight * slot - j2) * Math.PI) / halfCircumference;
+                if (radian >= Math.PI || radian <= 0) {
+                    assertEquals(WheelGeometry.BAND_HIDDEN, geometry.band(entry));
+                    continue;
+                }
+                int translateY = (int) (radius - Math.cos(radian) * radius - (Math.sin(radian) * maxTextHeight) / 2D);
+                assertEquals(translateY, geometry.translateY(entry));
+                assertEquals((float) Math.sin(radian), geometry.scale(entry), 0f);
+                byte band = geometry.band(entry);
+                if (translateY <= firstLineY && maxTextHeight + translateY >= firstLineY) {
+                    assertEquals(WheelGeometry.BAND_CROSS_FIRST, band);
+                } else if (translateY <= secondLineY && maxTextHeight + translateY >= secondLineY) {
+                    assertEquals(WheelGeometry.BAND_CROSS_SECOND, band);
+                } else if (translateY >= firstLineY && maxTextHeight + translateY <= secondLineY) {
+                    assertEquals(WheelGeometry.BAND_CENTER, band);
+                    centerCount++;
+                } else {
+                    assertEquals(WheelGeometry.BAND_OUTER, band);
+                }
+            }
+        }
+        assertTrue(centerCount > 0);
+    }
+
+    @Test
+    public void build_onlyWhenInputsChange() {
+        WheelGeometry geometry = new WheelGeometry();
+        assertTrue(geometry.build(9, 58f, 29, 942, 300, 271, 329));
+        assertFalse(geometry.build(9, 58f, 29, 942, 300, 271, 329));
+        assertTrue(geometry.build(7, 58f, 29, 942, 300, 271, 329));
+        assertTrue(geometry.build(7, 87f, 29, 942, 300, 256, 343));
+    }
+}
@@ -0,0 +1,187 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the headless wheel layout.
+ */
+public class WheelLayoutTest {
+
+    private static final int HEIGHT = 600;
+    private static final int VISIBLE = 9;
+    private static final float SPACING = 2f;
+
+    @Test
+    public void measure_sizesItemsFromHeight() {
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        assertFalse(layout.isMeasured());
+        assertFalse(layout.measure(0));
+        assertTrue(layout.measure(HEIGHT));
+        int halfCircumference = (int) (HEIGHT * Math.PI / 2);
+        int maxTextHeight = (int) (halfCircumference / (SPACING * (VISIBLE - 1)));
+        assertEquals(maxTextHeight, layout.getMaxTextHeight());
+        assertEquals(SPACING * maxTextHeight, layout.getItemHeight(), 0f);
+        assertEquals(HEIGHT / 2, layout.getRadius());
+        assertEquals((int) ((HEIGHT - SPACING * maxTextHeight) / 2.0F), layout.getFirstLineY());
+        assertEquals((int) ((HEIGHT + SPACING * maxTextHeight) / 2.0F), layout.getSecondLineY());
+        // a zero height, as before the first measure pass, keeps the sizes
+        assertTrue(layout.measure(0));
+        assertEquals(maxTextHeight, layout.getMaxTextHeight());
+    }
+
+    @Test
+    public void layout_randomPositionsMatchWindowAndGeometry() {
+        Random random = new Random(42);
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        layout.measure(HEIGHT);
+        float itemHeight = layout.getItemHeight();
+        WheelGeometry geometry = new WheelGeometry();
+        geometry.build(VISIBLE, itemHeight, layout.getMaxTextHeight(), (int) (HEIGHT * Math.PI / 2),
+                layout.getRadius(), layout.getFirstLineY(), layout.getSecondLineY());
+        ItemWindow window = new ItemWindow(VISIBLE);
+        WheelState state = new WheelState();
+        ScrollState scroll = new ScrollState();
+
+        for (int run = 0; run < 20000; run++) {
+            int itemCount = 1 + random.nextInt(random.nextBoolean() ? 20 : 100000);
+            boolean loop = random.nextBoolean();
+            int initPosition = random.nextInt(itemCount);
+            scroll.reset(initPosition);
+            int scrollY = layout.minScrollY(initPosition, loop) == Integer.MIN_VALUE
+                    ? random.nextInt(2000000) - 1000000
+                    : layout.minScrollY(initPosition, loop) + random.nextInt(
+                    layout.maxScrollY(initPosition, itemCount, loop) - layout.minScrollY(initPosition, loop) + 1);
+            scroll.setScrollY(scrollY);
+
+            layout.layout(scroll.snapshot(), itemCount, loop, state);
+
+            int currentIndex = ItemWindow.currentIndex(scrollY, itemHeight, initPosition, itemCount, loop);
+            assertEquals(currentIndex, state.getCurrentIndex());
+            assertTrue(currentIndex >= 0 && currentIndex < itemCount);
+            window.fill(currentIndex, itemCount, loop);
+            int offset = (int) (scrollY % itemHeight);
+            int command = 0;
+            for (int slot = 0; slot < VISIBLE; slot++) {
+                int entry = geometry.entry(slot, offset);
+                if (geometry.band(entry) == WheelGeometry.BAND_HIDDEN) {
+                    continue;
+                }
+                assertEquals(slot, state.getSlot(command));
+                assertEquals(window.get(slot), state.getItem(command));
+                assertEquals(geometry.translateY(entry), state.getTranslateY(command));
+                assertEquals(geometry.scale(entry), state.getScale(command), 0f);
+                assertEquals(geometry.band(entry), state.getBand(command));
+                command++;
+            }
+            assertEquals(command, state.getCount());
+        }
+    }
+
+    @Test
+    public void layout_restingWheelHasCurrentItemInCenter() {
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        layout.measure(HEIGHT);
+        WheelState state = new WheelState();
+        ScrollState scroll = new ScrollState();
+        scroll.reset(3);
+        scroll.setScrollY((int) (2 * layout.getItemHeight()));
+        layout.layout(scroll.snapshot(), 10, false, state);
+        assertEquals(5, state.getCurrentIndex());
+        assertTrue(state.getCenterCommand() >= 0);
+        assertEquals(5, state.getItem(state.getCenterCommand()));
+        assertEquals(VISIBLE / 2, state.getSlot(state.getCenterCommand()));
+    }
+
+    @Test
+    public void selectedIndex_isItemClosestToMiddle() {
+        WheelLayout layout = new WheelLayout(VISIBLE, 1.7f);
+        layout.measure(HEIGHT);
+        float itemHeight = layout.getItemHeight();
+        ScrollState scroll = new ScrollState();
+        scroll.reset(5);
+        // a snap ends on a truncated multiple of a fractional item height
+        scroll.setScrollY((int) (3 * itemHeight));
+        assertEquals(8, layout.selectedIndex(scroll.snapshot(), 10, false));
+        scroll.setScrollY((int) (-3 * itemHeight));
+        assertEquals(2, layout.selectedIndex(scroll.snapshot(), 10, false));
+        scroll.setScrollY((int) (-0.4f * itemHeight));
+        assertEquals(5, layout.selectedIndex(scroll.snapshot(), 10, true));
+        scroll.setScrollY((int) (-6 * itemHeight));
+        assertEquals(9, layout.selectedIndex(scroll.snapshot(), 10, true));
+    }
+
+    @Test
+    public void selectedIndex_itemsShrunkBelowInitPosition() {
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        layout.measure(HEIGHT);
+        float itemHeight = layout.getItemHeight();
+        ScrollState scroll = new ScrollState();
+        // the wheel rested on item 100 of a long list, the list now has 10 items
+        scroll.reset(100);
+        assertEquals(0, layout.selectedIndex(scroll.snapshot(), 10, true));
+        assertEquals(9, layout.selectedIndex(scroll.snapshot(), 10, false));
+        scroll.setScrollY((int) (-3 * itemHeight));
+        assertEquals(7, layout.selectedIndex(scroll.snapshot(), 10, true));
+        scroll.setScrollY((int) (-95 * itemHeight));
+        assertEquals(5, layout.selectedIndex(scroll.snapshot(), 10, true));
+        assertEquals(5, layout.selectedIndex(scroll.snapshot(), 10, false));
+
+        Random random = new Random(11);
+        for (int run = 0; run < 1000; run++) {
+            int count = 1 + random.nextInt(20);
+            scroll.reset(random.nextInt(1000), (int) ((random.nextInt(4001) - 2000) * itemHeight));
+            boolean loop = random.nextBoolean();
+            int index = layout.selectedIndex(scroll.snapshot(), count, loop);
+            assertTrue(index >= 0 && index < count);
+        }
+    }
+
+    @Test
+    public void scrollBounds_keepNotLoopWheelOnItems() {
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        layout.measure(HEIGHT);
+        float itemHeight = layout.getItemHeight();
+        assertEquals((int) (-4 * itemHeight), layout.minScrollY(4, false));
+        assertEquals((int) (5 * itemHeight), layout.maxScrollY(4, 10, false));
+        assertEquals(Integer.MIN_VALUE, layout.minScrollY(4, true));
+        assertEquals(Integer.MAX_VALUE, layout.maxScrollY(4, 10, true));
+
+        WheelState state = new WheelState();
+        ScrollState scroll = new ScrollState();
+        scroll.reset(4);
+        scroll.scrollBy(-100000, layout.minScrollY(4, false), layout.maxScrollY(4, 10, false));
+        layout.layout(scroll.snapshot(), 10, false, state);
+        assertEquals(0, state.getCurrentIndex());
+        scroll.scrollBy(200000, layout.minScrollY(4, false), layout.maxScrollY(4, 10, false));
+        layout.layout(scroll.snapshot(), 10, false, state);
+        assertEquals(9, state.getCurrentIndex());
+    }
+
+    @Test
+    public void snapDistance_endsOnClosestBoundary() {
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        layout.measure(HEIGHT);
+        int itemHeight = (int) layout.getItemHeight();
+        for (int scrollY = -5 * itemHeight; scrollY <= 5 * itemHeight; scrollY++) {
+            int distance = layout.snapDistance(scrollY);
+            assertTrue(Math.abs(distance) <= itemHeight / 2);
+            assertEquals(0, ((scrollY + distance) % itemHeight + itemHeight) % itemHeight);
+        }
+    }
+
+    @Test
+    public void tapDistance_bringsTappedSlotToMiddle() {
+        WheelLayout layout = new WheelLayout(VISIBLE, SPACING);
+        layout.measure(HEIGHT);
+        float itemHeight = layout.getItemHeight();
+        assertEquals(0, layout.tapDistance(HEIGHT / 2f, 0));
+        assertEquals((int) (-(VISIBLE / 2) * itemHeight), layout.tapDistance(0f, 0));
+        assertEquals((int) ((VISIBLE / 2) * itemHeight), layout.tapDistance(HEIGHT, 0));
+        // a wheel resting between items snaps back by the partial offset
+        assertEquals(-10, layout.tapDistance(HEIGHT / 2f, 10));
+    }
+}
@@ -0,0 +1,174 @@
+package com.tonyjstudio.pickerlikeios.wheel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit test of the wheel painters on a recording canvas.
+ */
+public class WheelPainterTest {
+
+    private static final int HEIGHT = 600;
+    private static final int WIDTH = 400;
+    private static final int ITEM_COUNT = 50;
+    // the former pipeline splits a crossing label on a scaled clip, a few pixels off the divider line
+    private static final int DIVIDER_TOLERANCE = 4;
+    private static final float EPSILON = 1e-3f;
+
+    @Test
+    public void paintInBands_clipsOncePerBand() {
+        for (int visibleCount = 9; visibleCount <= 15; visibleCount += 2) {
+            WheelLayout layout = measuredLayout(visibleCount);
+            WheelState state = new WheelState();
+            RecordingCanvas perItem = new RecordingCanvas(layout.getMaxTextHeight());
+            RecordingCanvas bands = new RecordingCanvas(layout.getMaxTextHeight());
+            int frames = 0;
+            for (int scrollY = 0; scrollY < 4 * layout.getItemHeight(); scrollY += 3) {
+                layout.layout(snapshot(scrollY), ITEM_COUNT, true, state);
+                WheelPainter.paintPerItem(state, layout, 0, WIDTH, perItem);
+                WheelPainter.paintInBands(state, layout, 0, WIDTH, bands);
+                frames++;
+            }
+            assertEquals(3 * frames, bands.clips);
+            assertEquals(3 * frames, bands.saves);
+            assertEquals(bands.saves, bands.restores);
+            assertTrue(perItem.clips >= visibleCount * frames / 2);
+            assertTrue("state changes per frame " + perItem.stateOps() / frames + " -> " + bands.stateOps() / frames,
+                    bands.stateOps() * 3 < perItem.stateOps());
+            assertTrue("operations per frame " + perItem.totalOps() / frames + " -> " + bands.totalOps() / frames,
+                    bands.totalOps() * 4 < perItem.totalOps() * 3);
+        }
+    }
+
+    @Test
+    public void paintInBands_coversTheSameRowsWithTheSamePaint() {
+        WheelLayout layout = measuredLayout(9);
+        WheelState state = new WheelState();
+        for (int scrollY = -200; scrollY < 200; scrollY++) {
+            layout.layout(snapshot(scrollY), ITEM_COUNT, false, state);
+            RecordingCanvas perItem = new RecordingCanvas(layout.getMaxTextHeight());
+            RecordingCanvas bands = new RecordingCanvas(layout.getMaxTextHeight());
+            WheelPainter.paintPerItem(state, layout, 0, WIDTH, perItem);
+            WheelPainter.paintInBands(state, layout, 0, WIDTH, bands);
+            String[] expected = perItem.rows();
+            String[] actual = bands.rows();
+            for (int y = 0; y < HEIGHT; y++) {
+                boolean nearDivider = Math.abs(y - layout.getFirstLineY()) <= DIVIDER_TOLERANCE
+                        || Math.abs(y - layout.getSecondLineY()) <= DIVIDER_TOLERANCE;
+                if (!nearDivider) {
+                    assertEquals("scroll " + scrollY + " row " + y, expected[y], actual[y]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void paintInBands_restoresTheTransform() {
+        WheelLayout layout = measuredLayout(9);
+        WheelState state = new WheelState();
+        layout.layout(snapshot(17), ITEM_COUNT, true, state);
+        RecordingCanvas canvas = new RecordingCanvas(layout.getMaxTextHeight());
+        WheelPainter.paintInBands(state, layout, 0, WIDTH, canvas);
+        assertEquals(0f, canvas.translateY, EPSILON);
+        assertEquals(1f, canvas.scaleY, 1e-6f);
+        assertEquals(1, canvas.stack.size());
+    }
+
+    private static WheelLayout measuredLayout(int visibleCount) {
+        WheelLayout layout = new WheelLayout(visibleCount, 2f);
+        assertTrue(layout.measure(HEIGHT));
+        return layout;
+    }
+
+    private static long snapshot(int scrollY) {
+        ScrollState scroll = new ScrollState();
+        scroll.reset(ITEM_COUNT / 2, scrollY);
+        return scroll.snapshot();
+    }
+
+    /*
+     * Counts the operations and tracks the vertical transform and clip, labels are recorded
+     * as the screen rows they cover: the text height scaled from the item origin, cut by the clip
+     */
+    private static final class RecordingCanvas implements WheelCanvas {
+        final int textHeight;
+        final List<float[]> stack = new ArrayList<>();
+        float translateY;
+        float scaleY = 1f;
+        float clipTop = Float.NEGATIVE_INFINITY;
+        float clipBottom = Float.POSITIVE_INFINITY;
+        int saves;
+        int restores;
+        int clips;
+        int transforms;
+        int draws;
+        final String[] rows = new String[HEIGHT];
+
+        RecordingCanvas(int textHeight) {
+            this.textHeight = textHeight;
+            stack.add(new float[]{translateY, scaleY, clipTop, clipBottom});
+        }
+
+        @Override
+        public void save() {
+            saves++;
+            stack.add(new float[]{translateY, scaleY, clipTop, clipBottom});
+        }
+
+        @Override
+        public void restore() {
+            restores++;
+            float[] saved = stack.remove(stack.size() - 1);
+            translateY = saved[0];
+            scaleY = saved[1];
+            clipTop = saved[2];
+            clipBottom = saved[3];
+        }
+
+        @Override
+        public void clipRect(int left, int top, int right, int bottom) {
+            clips++;
+            clipTop = Math.max(clipTop, translateY + top * scaleY);
+            clipBottom = Math.min(clipBottom, translateY + bottom * scaleY);
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+            transforms++;
+            translateY += dy * scaleY;
+        }
+
+        @Override
+        public void scale(float sx, float sy) {
+            transforms++;
+            scaleY *= sy;
+        }
+
+        @Override
+        public void drawItem(int item, boolean center) {
+            draws++;
+            float top = Math.max(clipTop, translateY);
+            float bottom = Math.min(clipBottom, translateY + textHeight * scaleY);
+            // relative moves leave rounding errors far below a pixel
+            for (int y = Math.max(0, (int) Math.ceil(top - EPSILON)); y < Math.min(HEIGHT, bottom - EPSILON); y++) {
+                rows[y] = item + (center ? " center" : " outer");
+            }
+        }
+
+        int stateOps() {
+            return saves + restores + clips;
+        }
+
+        int totalOps() {
+            return stateOps() + transforms + draws;
+        }
+
+        String[] rows() {
+            return rows;
+        }
+    }
+}